@@ -0,0 +1,164 @@
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of successors that is stored in an insertion ordered array while it is small.
+ * A linear scan over a few array slots beats hashing, but as soon as the size exceeds the threshold
+ * the elements move into a {@link HashSet} so contains and remove stay O(1) for high-degree nodes.
+ * Iteration follows the insertion order in array mode and the hash order after the promotion.
+ *
+ * @param <T> the type of the elements
+ */
+class AdaptiveAdjacencySet<T> extends AbstractCollection<T> {
+    private final int threshold;
+    // array mode, null after promotion
+    private Object[] elements;
+    private int size;
+    // hash mode, null before promotion
+    private HashSet<T> set;
+    private int modCount;
+
+    AdaptiveAdjacencySet(int threshold, int expectedDegree) {
+        this.threshold = threshold;
+        if (expectedDegree > threshold) {
+            set = new HashSet<>(Math.max(16, (int) (expectedDegree / 0.75f) + 1));
+        } else {
+            elements = new Object[Math.max(expectedDegree, 4)];
+        }
+    }
+
+    @Override
+    public int size() {
+        return set != null ? set.size() : size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (set != null) {
+            return set.contains(o);
+        }
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean add(T element) {
+        if (set != null) {
+            return set.add(element);
+        }
+        if (indexOf(element) >= 0) {
+            return false;
+        }
+        if (size == threshold) {
+            // promoting to hash mode:
+            set = new HashSet<>(threshold * 4);
+            for (int i = 0; i < size; i++) {
+                set.add(elementAt(i));
+            }
+            set.add(element);
+            elements = null;
+            size = 0;
+        } else {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.min(threshold, size * 2));
+            }
+            elements[size++] = element;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (set != null) {
+            return set.remove(o);
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    // closes the gap to keep the insertion order
+    private void removeAt(int index) {
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        if (set != null) {
+            set.clear();
+        } else {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (set != null) {
+            return set.iterator();
+        }
+        return new Iterator<>() {
+            private int expectedModCount = modCount;
+            private int next = 0;
+            // index of the element returned last, -1 if there is none or it was removed
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                checkForComodification();
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                return elementAt(next++);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                removeAt(last);
+                next = last;
+                last = -1;
+                expectedModCount = modCount;
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    private int indexOf(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i].equals(o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) elements[index];
+    }
+}
@@ -8,9 +8,7 @@ public class AdjacencyListGraph<T> implements Graph<T> {
             // adding to directed part:
             super.addEdge(from, to);
             // adding to undirected part:
-            if (!map.get(to).contains(from)) {
-                map.get(to).add(from);
-            }
+            link(to, from);
         }
 
         @Override
@@ -18,26 +16,45 @@ public class AdjacencyListGraph<T> implements Graph<T> {
             // remove from directed part:
             boolean removedFrom = super.removeEdge(from, to);
             // remove from undirected part:
-            boolean removedTo = map.get(to).remove(from);
+            boolean removedTo = unlink(to, from);
             return removedFrom && removedTo;
         }
     }
 
-    private enum NodeColor {
-        UNCOLORED,
-        RED,
-        GREEN
-    }
+    Map<T, Collection<T>> map;
+    // node -> predecessors, only maintained if enabled in the constructor
+    Map<T, Set<T>> inEdges;
+    // bipartite state of the undirected graph, updated on every addEdge
+    private ParityUnionFind<T> bipartition;
+    // set by removals, the union-find is rebuilt on the next query
+    private boolean bipartitionStale;
 
-    private NodeColor complement(NodeColor color) {
-        // this should never be called with NodeColor.UNCOLORED
-        return color == NodeColor.RED ? NodeColor.GREEN : NodeColor.RED;
+    // creates the successor collection of every node
+    final AdjacencyStorage storage;
+
+    public AdjacencyListGraph() {
+        this(false);
     }
 
-    Map<T, List<T>> map;
+    /**
+     * @param trackInEdges if true, the predecessors of every node are indexed,
+     *                     so removing a node only touches its actual neighbors.
+     */
+    public AdjacencyListGraph(boolean trackInEdges) {
+        this(AdjacencyStorage.ADAPTIVE, trackInEdges);
+    }
 
-    public AdjacencyListGraph() {
+    /**
+     * @param storage      how the successors of each node are stored
+     * @param trackInEdges if true, the predecessors of every node are indexed,
+     *                     so removing a node only touches its actual neighbors.
+     */
+    public AdjacencyListGraph(AdjacencyStorage storage, boolean trackInEdges) {
+        this.storage = storage;
         map = new HashMap<>();
+        inEdges = trackInEdges ? new HashMap<>() : null;
+        bipartition = new ParityUnionFind<>();
+        bipartitionStale = false;
     }
 
     @Override
@@ -45,18 +62,37 @@ public class AdjacencyListGraph<T> implements Graph<T> {
         if (map.containsKey(element)) {
             return false;
         }
-        map.put(element, new LinkedList<>());
+        map.put(element, storage.create(0));
+        if (inEdges != null) {
+            inEdges.put(element, new HashSet<>());
+        }
         return true;
     }
 
     @Override
     public boolean removeNodeElement(T element) {
-        if (map.remove(element) == null) {
+        Collection<T> successors = map.remove(element);
+        if (successors == null) {
             return false;
         }
-        for (List<T> list : map.values()) {
-            list.remove(element);
+        if (inEdges != null) {
+            // only the lists of actual neighbors have to be touched:
+            for (T predecessor : inEdges.remove(element)) {
+                if (!predecessor.equals(element)) {
+                    map.get(predecessor).remove(element);
+                }
+            }
+            for (T successor : successors) {
+                if (!successor.equals(element)) {
+                    inEdges.get(successor).remove(element);
+                }
+            }
+        } else {
+            for (Collection<T> others : map.values()) {
+                others.remove(element);
+            }
         }
+        bipartitionStale = true;
         return true;
     }
 
@@ -65,10 +101,7 @@ public class AdjacencyListGraph<T> implements Graph<T> {
         if (!map.containsKey(from) || !map.containsKey(to)) {
             throw new InvalidEdgeException();
         }
-        List<T> list = map.get(from);
-        if (!list.contains(to)) {
-            list.add(to);
-        }
+        link(from, to);
     }
 
     @Override
@@ -76,23 +109,85 @@ public class AdjacencyListGraph<T> implements Graph<T> {
         if (!map.containsKey(from) || !map.containsKey(to)) {
             throw new InvalidNodeException();
         }
-        return map.get(from).remove(to);
+        return unlink(from, to);
     }
 
-    // convert O(n^2)
-    AdjacencyMatrixGraph<T> convert() throws InvalidEdgeException {
-        AdjacencyMatrixGraph<T> adjacencyMatrixGraph = new AdjacencyMatrixGraph<>();
-        // adding nodes O(n):
-        for (T element: map.keySet()) {
-            adjacencyMatrixGraph.addNodeElement(element);
+    @Override
+    public boolean containsNode(T element) {
+        return map.containsKey(element);
+    }
+
+    @Override
+    public Collection<T> successors(T element) throws InvalidNodeException {
+        Collection<T> successors = map.get(element);
+        if (successors == null) {
+            throw new InvalidNodeException();
         }
-        // adding edges max O(n^2):
-        for (Map.Entry<T, List<T>> entry: map.entrySet()) {
-            for (T node: entry.getValue()) {
-                adjacencyMatrixGraph.addEdge(entry.getKey(),node);
+        return Collections.unmodifiableCollection(successors);
+    }
+
+    // adds from -> to without validating the nodes; false if the edge already existed
+    boolean link(T from, T to) {
+        if (!map.get(from).add(to)) {
+            return false;
+        }
+        if (inEdges != null) {
+            inEdges.get(to).add(from);
+        }
+        if (!bipartitionStale) {
+            bipartition.union(from, to);
+        }
+        return true;
+    }
+
+    // removes from -> to without validating the nodes; false if the edge did not exist
+    boolean unlink(T from, T to) {
+        if (!map.get(from).remove(to)) {
+            return false;
+        }
+        if (inEdges != null) {
+            inEdges.get(to).remove(from);
+        }
+        bipartitionStale = true;
+        return true;
+    }
+
+    /**
+     * @return number of edges ending in the given node
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    public int inDegree(T element) throws InvalidNodeException {
+        if (inEdges != null && map.containsKey(element)) {
+            return inEdges.get(element).size();
+        }
+        return predecessors(element).size();
+    }
+
+    /**
+     * Answered from the in-edge index if it is enabled, otherwise by scanning all adjacency lists.
+     *
+     * @return a new set with all nodes with an edge to the given node, not backed by the graph
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    public Set<T> predecessors(T element) throws InvalidNodeException {
+        if (!map.containsKey(element)) {
+            throw new InvalidNodeException();
+        }
+        if (inEdges != null) {
+            return new HashSet<>(inEdges.get(element));
+        }
+        Set<T> predecessors = new HashSet<>();
+        for (Map.Entry<T, Collection<T>> entry : map.entrySet()) {
+            if (entry.getValue().contains(element)) {
+                predecessors.add(entry.getKey());
             }
         }
-        return adjacencyMatrixGraph;
+        return predecessors;
+    }
+
+    // convert O(n^2) for the matrix allocation, the edges are copied by id in O(E):
+    AdjacencyMatrixGraph<T> convert() throws InvalidEdgeException {
+        return freeze().toMatrixGraph();
     }
 
     public AdjacencyListGraph<T> undirected() throws InvalidEdgeException {
@@ -103,7 +198,7 @@ public class AdjacencyListGraph<T> implements Graph<T> {
             undirectedGraph.addNodeElement(element);
         }
         // adding edges to undirected Graph:
-        for (Map.Entry<T, List<T>> entry: map.entrySet()) {
+        for (Map.Entry<T, Collection<T>> entry: map.entrySet()) {
             for (T node: entry.getValue()) {
                 undirectedGraph.addEdge(entry.getKey(), node);
             }
@@ -112,40 +207,82 @@ public class AdjacencyListGraph<T> implements Graph<T> {
     }
 
 
+    /**
+     * Creates an immutable compressed-sparse-row snapshot of this graph.
+     * Later changes to this graph are not reflected in the snapshot.
+     *
+     * @return the frozen graph
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenGraph<T> freeze() {
+        T[] nodes = (T[]) map.keySet().toArray();
+        Map<T, Integer> ids = FrozenGraph.intern(nodes);
+        int[] offsets = new int[nodes.length + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] = offsets[i] + map.get(nodes[i]).size();
+        }
+        int[] targets = new int[offsets[nodes.length]];
+        int position = 0;
+        for (T node : nodes) {
+            for (T other : map.get(node)) {
+                targets[position++] = ids.get(other);
+            }
+        }
+        return new FrozenGraph<>(nodes, ids, offsets, targets);
+    }
+
+    // builds a list graph in O(V + E) with successor collections sized by the degrees of the snapshot
+    static <T> AdjacencyListGraph<T> fromFrozen(FrozenGraph<T> frozen) {
+        AdjacencyListGraph<T> graph = new AdjacencyListGraph<>();
+        int n = frozen.nodeCount();
+        graph.map = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int u = 0; u < n; u++) {
+            Collection<T> successors = graph.storage.create(frozen.degree(u));
+            for (int e = frozen.offsets[u]; e < frozen.offsets[u + 1]; e++) {
+                T other = frozen.nodes[frozen.targets[e]];
+                successors.add(other);
+            }
+            graph.map.put(frozen.nodes[u], successors);
+        }
+        // the parity union-find is built on the first bipartiteness query
+        graph.bipartitionStale = true;
+        return graph;
+    }
+
+    /**
+     * O(1) unless an edge or node was removed since the last call;
+     * then the parity union-find is rebuilt from all edges once.
+     */
     public boolean undirectedGraphIsBipartit() throws InvalidEdgeException {
-        // Undirected Graph:
-        AdjacencyListGraph<T> undirectedGraph = this.undirected();
-        // All nodes to UNCOLORED:
-        Map<T, NodeColor> colorMap = new HashMap<>();
-        for (T node : map.keySet()) {
-            colorMap.put(node, NodeColor.UNCOLORED);
-        }
-        // BFS:
-        for (T startNode : map.keySet()) {
-            if (colorMap.get(startNode) == NodeColor.UNCOLORED) {
-                // Start BFS from this uncolored node
-                Queue<T> queue = new LinkedList<>();
-                queue.add(startNode);
-                colorMap.put(startNode, NodeColor.RED);
-
-                while (!queue.isEmpty()) {
-                    T currentNode = queue.poll();
-                    NodeColor currentColor = colorMap.get(currentNode);
-                    NodeColor neighborColor = complement(currentColor);
-
-                    for (T neighbor : undirectedGraph.map.get(currentNode)) {
-                        if (colorMap.get(neighbor) == NodeColor.UNCOLORED) {
-                            colorMap.put(neighbor, neighborColor);
-                            queue.add(neighbor);
-                        } else if (colorMap.get(neighbor) == currentColor) {
-                            // If neighbor has the same color, graph is not bipartite
-                            return false;
-                        }
-                    }
+        if (bipartitionStale) {
+            bipartition = new ParityUnionFind<>(map.size());
+            for (Map.Entry<T, Collection<T>> entry : map.entrySet()) {
+                for (T node : entry.getValue()) {
+                    bipartition.union(entry.getKey(), node);
                 }
             }
+            bipartitionStale = false;
         }
-        return true;
+        return bipartition.isBipartite();
+    }
+
+    /**
+     * Computed on a frozen snapshot with an iterative Tarjan search. O(V + E)
+     *
+     * @return the strongly connected components, each as a list of its elements
+     */
+    public List<List<T>> stronglyConnectedComponents() {
+        return freeze().stronglyConnectedComponents();
+    }
+
+    /**
+     * Computed on a frozen snapshot with Kahn's algorithm. O(V + E)
+     *
+     * @return the elements in an order where every edge leads from an earlier to a later element;
+     * null if the graph has a cycle.
+     */
+    public List<T> topologicalOrder() {
+        return freeze().topologicalOrder();
     }
 
     void print() {
@@ -21,6 +21,9 @@ public class AdjacencyListUndirectedWeightedGraph<T> implements UndirectedWeight
     @Override
     public boolean removeNodeElement(T element) {
         if (map.containsKey(element)){
+            for (Edge<T> edge : new ArrayList<>(map.get(element))) {
+                unlink(edge);
+            }
             map.remove(element);
             return true;
         }
@@ -30,9 +33,7 @@ public class AdjacencyListUndirectedWeightedGraph<T> implements UndirectedWeight
     @Override
     public void addEdge(T t1, T t2, int weight) throws InvalidEdgeException {
         if (map.containsKey(t1) && map.containsKey(t2)){
-            Edge<T> edge = new Edge<>(t1, t2, weight);
-            map.get(t1).add(edge);
-            map.get(t2).add(edge);
+            link(t1, t2, weight);
         }
         else {
             throw new InvalidEdgeException();
@@ -42,71 +43,151 @@ public class AdjacencyListUndirectedWeightedGraph<T> implements UndirectedWeight
     @Override
     public boolean removeEdge(T t1, T t2) throws InvalidNodeException {
         List<Edge<T>> list = map.get(t1);
-        for (Edge<T> edge:list) {
-            if (edge.getT2().equals(t2)){
-                list.remove(edge);
-                map.get(t2).remove(edge);
+        if (list == null || !map.containsKey(t2)) {
+            throw new InvalidNodeException();
+        }
+        for (Edge<T> edge : list) {
+            if (edge.getOtherNode(t1).equals(t2)) {
+                unlink(edge);
                 return true;
             }
-            else {
-                return false;
-            }
         }
-        throw new InvalidNodeException();
+        return false;
+    }
+
+    // adds the edge without validating the nodes
+    Edge<T> link(T t1, T t2, int weight) {
+        Edge<T> edge = new Edge<>(t1, t2, weight);
+        map.get(t1).add(edge);
+        map.get(t2).add(edge);
+        return edge;
+    }
+
+    // removes the edge from the lists of both endpoints, if it is still there
+    void unlink(Edge<T> edge) {
+        map.get(edge.getT1()).remove(edge);
+        map.get(edge.getT2()).remove(edge);
     }
 
-    Comparator<Edge<T>> comparator = new Comparator<Edge<T>>() {
-        @Override
-        public int compare(Edge<T> o1, Edge<T> o2) {
-            return Integer.compare(o1.getWeight(), o2.getWeight());
+    /**
+     * Creates an immutable compressed-sparse-row snapshot of this graph.
+     * Edges to nodes that are no longer part of the graph are skipped.
+     *
+     * @return the frozen graph
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenWeightedGraph<T> freeze() {
+        T[] nodes = (T[]) map.keySet().toArray();
+        Map<T, Integer> ids = FrozenGraph.intern(nodes);
+        int[] offsets = new int[nodes.length + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            int degree = 0;
+            for (Edge<T> edge : map.get(nodes[i])) {
+                if (ids.containsKey(edge.getOtherNode(nodes[i]))) {
+                    degree++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + degree;
         }
-    };
-
-    public void kruskal() throws InvalidEdgeException {
-        AdjacencyListUndirectedWeightedGraph<T> newGraph = new AdjacencyListUndirectedWeightedGraph<>();
-        PriorityQueue<Edge<T>> queue = new PriorityQueue<>(comparator);
-        // node -> component
-        Map<T, Set<T>> components = new HashMap<>();
-
-        for (T node: map.keySet()) {
-            // adding nodes to components
-            Set<T> set = new HashSet<>();
-            set.add(node);
-            components.put(node, set);
-
-            // adding all edges to queue
-            List<Edge<T>> list = map.get(node);
-            for (Edge<T> edge: list) {
-                if (!queue.contains(edge)){
-                    queue.add(edge);
+        int[] targets = new int[offsets[nodes.length]];
+        int[] weights = new int[targets.length];
+        int position = 0;
+        for (T node : nodes) {
+            for (Edge<T> edge : map.get(node)) {
+                Integer other = ids.get(edge.getOtherNode(node));
+                if (other != null) {
+                    targets[position] = other;
+                    weights[position++] = edge.getWeight();
                 }
             }
         }
+        return new FrozenWeightedGraph<>(nodes, ids, offsets, targets, weights);
+    }
 
-        // check all edges
-        while (!queue.isEmpty()){
-            Edge<T> edge = queue.poll();
-            T t1 = edge.getT1();
-            T t2 = edge.getT2();
-            Set<T> set1 = components.get(t1);
-            Set<T> set2 = components.get(t2);
-            if (!set1.equals(set2)){
-                newGraph.addNodeElement(t1);
-                newGraph.addNodeElement(t2);
-                newGraph.addEdge(t1, t2, edge.getWeight());
-                System.out.println("Edge " + t1 + " <-> " + t2 + " accepted");
-
-                set1.addAll(set2);
-                for (T node : set2) {
-                    components.put(node, set1);
+    /**
+     * Kruskal's algorithm on a frozen snapshot of this graph, see {@link Kruskal}. O(E log E)
+     *
+     * @return a new graph with all nodes of this graph and the edges of a minimum spanning forest
+     */
+    public AdjacencyListUndirectedWeightedGraph<T> kruskal() {
+        FrozenWeightedGraph<T> frozen = freeze();
+        EdgeList edges = frozen.edges();
+        return forest(frozen, edges, Kruskal.spanningForest(edges));
+    }
 
-                }
-                System.out.println(components.values());
-            }
+    /**
+     * Boruvka's algorithm on a frozen snapshot of this graph, running on all cores, see {@link ParallelBoruvka}.
+     *
+     * @return a new graph with all nodes of this graph and the edges of a minimum spanning forest
+     */
+    public AdjacencyListUndirectedWeightedGraph<T> boruvka() {
+        FrozenWeightedGraph<T> frozen = freeze();
+        EdgeList edges = frozen.edges();
+        return forest(frozen, edges, new ParallelBoruvka().spanningForest(edges));
+    }
+
+    /**
+     * Prim's algorithm on a frozen snapshot of this graph, see {@link Prim}. Faster than Kruskal on dense graphs.
+     *
+     * @return a new graph with all nodes of this graph and the edges of a minimum spanning forest
+     */
+    public AdjacencyListUndirectedWeightedGraph<T> prim() {
+        FrozenWeightedGraph<T> frozen = freeze();
+        EdgeList edges = Prim.spanningForest(frozen);
+        int[] all = new int[edges.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return forest(frozen, edges, all);
+    }
+
+    /**
+     * Dijkstra from t1 to t2 on a frozen snapshot of this graph.
+     * For many queries freeze the graph once and use {@link ShortestPaths} on the snapshot.
+     *
+     * @return the nodes of a shortest path from t1 to t2; null if t2 cannot be reached from t1.
+     * @throws InvalidNodeException if one of the two elements is not part of the graph
+     */
+    public List<T> shortestPath(T t1, T t2) throws InvalidNodeException {
+        FrozenWeightedGraph<T> frozen = freeze();
+        int source = frozen.id(t1);
+        int target = frozen.id(t2);
+        if (source < 0 || target < 0) {
+            throw new InvalidNodeException();
+        }
+        int[] path = ShortestPaths.dijkstra(frozen, source, target).path(target);
+        if (path == null) {
+            return null;
+        }
+        List<T> nodes = new ArrayList<>(path.length);
+        for (int id : path) {
+            nodes.add(frozen.node(id));
+        }
+        return nodes;
+    }
 
+    private static <T> AdjacencyListUndirectedWeightedGraph<T> forest(FrozenWeightedGraph<T> frozen, EdgeList edges,
+                                                                      int[] selected) {
+        AdjacencyListUndirectedWeightedGraph<T> forest = new AdjacencyListUndirectedWeightedGraph<>();
+        for (T node : frozen.nodes) {
+            forest.addNodeElement(node);
         }
+        for (int edge : selected) {
+            forest.link(frozen.node(edges.u[edge]), frozen.node(edges.v[edge]), edges.w[edge]);
+        }
+        return forest;
     }
 
+    void print() {
+        for (T node : map.keySet()) {
+            for (Edge<T> edge : map.get(node)) {
+                // every edge is in the lists of both endpoints, print it from the first one
+                if (edge.getT1().equals(node)) {
+                    System.out.println(edge.getT1() + " <-> " + edge.getT2() + " (" + edge.getWeight() + ")");
+                }
+            }
+        }
+    }
 
     public static void main(String[] args) throws InvalidEdgeException, InvalidNodeException {
         AdjacencyListUndirectedWeightedGraph<Character> graph = new AdjacencyListUndirectedWeightedGraph<>();
@@ -125,6 +206,9 @@ public class AdjacencyListUndirectedWeightedGraph<T> implements UndirectedWeight
         graph.addEdge('C', 'F', 10);
         graph.addEdge('D', 'E', 30);
         graph.addEdge('E', 'F', 20);
-        graph.kruskal();
+        graph.kruskal().print();
+        System.out.println();
+        graph.prim().print();
+        System.out.println(graph.shortestPath('A', 'D'));
     }
 }
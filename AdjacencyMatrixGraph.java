@@ -1,16 +1,33 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class AdjacencyMatrixGraph<T> implements Graph<T> {
     public static final int INITIAL_CAPACITY = 10;
     private boolean[][] matrix;
     private Map<T, Integer> map;
+    // index -> element, null for free slots
+    private T[] nodes;
+    // indices 0 .. count - 1 have been handed out, some of them may be free again
     private int count;
+    // indices of removed nodes, reused before count grows
+    private int[] freeSlots;
+    private int freeCount;
 
     public AdjacencyMatrixGraph() {
-        matrix = new boolean[INITIAL_CAPACITY][INITIAL_CAPACITY];
+        this(INITIAL_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AdjacencyMatrixGraph(int capacity) {
+        matrix = new boolean[capacity][capacity];
+        nodes = (T[]) new Object[capacity];
         map = new HashMap<>();
         count = 0;
+        freeSlots = new int[capacity];
+        freeCount = 0;
     }
 
     @Override
@@ -18,6 +35,13 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
         if (map.containsKey(element)){
             return false;
         }
+        if (freeCount > 0) {
+            // row and column of a free slot were cleared on removal
+            int index = freeSlots[--freeCount];
+            map.put(element, index);
+            nodes[index] = element;
+            return true;
+        }
         if (count==matrix.length){
             int newSize = matrix.length * 2;
             boolean[][] newMatrix = new boolean[newSize][newSize];
@@ -25,8 +49,11 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
                 System.arraycopy(matrix[i], 0, newMatrix[i], 0, matrix.length);
             }
             matrix = newMatrix;
+            freeSlots = Arrays.copyOf(freeSlots, newSize);
+            nodes = Arrays.copyOf(nodes, newSize);
         }
         map.put(element, count);
+        nodes[count] = element;
         count++;
         return true;
     }
@@ -42,12 +69,65 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
                 matrix[i][elementIndex] = false;
             }
             map.remove(element);
-            count--;
+            nodes[elementIndex] = null;
+            freeSlots[freeCount++] = elementIndex;
+            // compacting once more than half of the used indices are free:
+            if (count > INITIAL_CAPACITY && freeCount > count / 2) {
+                compact();
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Moves all live nodes to the indices 0 .. size - 1 and shrinks the matrix
+     * to the smallest capacity (INITIAL_CAPACITY times a power of two) that holds them. O(count^2)
+     */
+    public void compact() {
+        int live = map.size();
+        int newSize = INITIAL_CAPACITY;
+        while (newSize < live) {
+            newSize *= 2;
+        }
+        int[] remap = denseIndices();
+        boolean[][] newMatrix = new boolean[newSize][newSize];
+        for (int i = 0; i < count; i++) {
+            if (remap[i] < 0) {
+                continue;
+            }
+            boolean[] row = matrix[i];
+            boolean[] newRow = newMatrix[remap[i]];
+            for (int j = 0; j < count; j++) {
+                if (row[j]) {
+                    newRow[remap[j]] = true;
+                }
+            }
+        }
+        @SuppressWarnings("unchecked")
+        T[] newNodes = (T[]) new Object[newSize];
+        for (Map.Entry<T, Integer> entry : map.entrySet()) {
+            int index = remap[entry.getValue()];
+            entry.setValue(index);
+            newNodes[index] = entry.getKey();
+        }
+        matrix = newMatrix;
+        nodes = newNodes;
+        count = live;
+        freeSlots = new int[newSize];
+        freeCount = 0;
+    }
+
+    // old index -> position among the live nodes, -1 for free slots
+    private int[] denseIndices() {
+        int[] remap = new int[count];
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            remap[i] = nodes[i] == null ? -1 : next++;
+        }
+        return remap;
+    }
+
     @Override
     public void addEdge(T from, T to) throws InvalidEdgeException{
         if (!map.containsKey(from) || !map.containsKey(to)){
@@ -73,47 +153,134 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
             throw new InvalidNodeException();
         }
     }
+    @Override
+    public boolean containsNode(T element) {
+        return map.containsKey(element);
+    }
+
+    // O(n)
+    @Override
+    public List<T> successors(T element) throws InvalidNodeException {
+        Integer index = map.get(element);
+        if (index == null) {
+            throw new InvalidNodeException();
+        }
+        List<T> successors = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            if (matrix[index][j]) {
+                successors.add(nodes[j]);
+            }
+        }
+        return successors;
+    }
+
     public void printGraph() {
         System.out.print("  ");
-        for (T key : map.keySet()) {
-            System.out.print(key + " ");
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] != null) {
+                System.out.print(nodes[i] + " ");
+            }
         }
         System.out.println();
-        for (Map.Entry<T, Integer> entry : map.entrySet()) {
-            System.out.print(entry.getKey() + " ");
-            int rowIndex = entry.getValue();
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == null) {
+                continue;
+            }
+            System.out.print(nodes[i] + " ");
             for (int j = 0; j < count; j++) {
-                System.out.print((matrix[rowIndex][j] ? 1 : 0) + " ");
+                if (nodes[j] != null) {
+                    System.out.print((matrix[i][j] ? 1 : 0) + " ");
+                }
             }
             System.out.println();
         }
     }
 
-    // convert method O(n^3):
-    AdjacencyListGraph<T> convert() throws InvalidEdgeException {
-        AdjacencyListGraph<T> newGraph = new AdjacencyListGraph<>();
-        // adding nodes O(n):
-        for (T element : map.keySet()){
-            newGraph.addNodeElement(element);
-        }
-        // adding edges O(n^3):
-        for (Map.Entry<T, Integer> entry:map.entrySet()){
-            int position = entry.getValue();
-            for (int i = 0; i<count; i++){
-                // if edge exists:
-                if (matrix[position][i]){
-                    // searching for key by value:
-                    for (Map.Entry<T, Integer> edgeEntry: map.entrySet()){
-                        // finding key:
-                        if (edgeEntry.getValue().equals(i)){
-                            // adding edge:
-                            newGraph.addEdge(entry.getKey(), edgeEntry.getKey());
-                        }
-                    }
+    /**
+     * Creates an immutable compressed-sparse-row snapshot of this graph. O(n^2)
+     *
+     * @return the frozen graph with the live nodes in index order
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenGraph<T> freeze() {
+        int[] remap = denseIndices();
+        int live = map.size();
+        T[] frozenNodes = (T[]) new Object[live];
+        int[] offsets = new int[live + 1];
+        // counting degrees:
+        for (int i = 0; i < count; i++) {
+            if (remap[i] < 0) {
+                continue;
+            }
+            frozenNodes[remap[i]] = nodes[i];
+            int degree = 0;
+            for (int j = 0; j < count; j++) {
+                if (matrix[i][j]) {
+                    degree++;
                 }
             }
+            offsets[remap[i] + 1] = degree;
         }
-        return newGraph;
+        for (int i = 0; i < live; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        // filling targets:
+        int[] targets = new int[offsets[live]];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            if (remap[i] < 0) {
+                continue;
+            }
+            for (int j = 0; j < count; j++) {
+                if (matrix[i][j]) {
+                    targets[position++] = remap[j];
+                }
+            }
+        }
+        return new FrozenGraph<>(frozenNodes, FrozenGraph.intern(frozenNodes), offsets, targets);
+    }
+
+    /**
+     * Computed on a frozen snapshot with an iterative Tarjan search. O(n^2) for the snapshot plus O(V + E)
+     *
+     * @return the strongly connected components, each as a list of its elements
+     */
+    public List<List<T>> stronglyConnectedComponents() {
+        return freeze().stronglyConnectedComponents();
+    }
+
+    /**
+     * Computed on a frozen snapshot with Kahn's algorithm. O(n^2) for the snapshot plus O(V + E)
+     *
+     * @return the elements in an order where every edge leads from an earlier to a later element;
+     * null if the graph has a cycle.
+     */
+    public List<T> topologicalOrder() {
+        return freeze().topologicalOrder();
+    }
+
+    // builds a matrix graph whose indices are the ids of the snapshot, O(n^2) for the allocation plus O(E)
+    static <T> AdjacencyMatrixGraph<T> fromFrozen(FrozenGraph<T> frozen) {
+        int n = frozen.nodeCount();
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < n) {
+            capacity *= 2;
+        }
+        AdjacencyMatrixGraph<T> graph = new AdjacencyMatrixGraph<>(capacity);
+        for (int u = 0; u < n; u++) {
+            graph.nodes[u] = frozen.nodes[u];
+            graph.map.put(frozen.nodes[u], u);
+            for (int e = frozen.offsets[u]; e < frozen.offsets[u + 1]; e++) {
+                graph.matrix[u][frozen.targets[e]] = true;
+            }
+        }
+        graph.count = n;
+        return graph;
+    }
+
+    // convert method O(n^2), the index -> element array replaces the search for keys:
+    AdjacencyListGraph<T> convert() throws InvalidEdgeException {
+        return freeze().toListGraph();
     }
 
     public static void main(String[] args) throws InvalidNodeException, InvalidEdgeException {
@@ -0,0 +1,68 @@
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+/**
+ * Strategy that creates the collection holding the successors of one node in an {@link AdjacencyListGraph}.
+ * Like {@link java.util.Set#add}, add must return false for an element that is already present,
+ * so the graph checks and inserts an edge with one call. Beyond that, a storage only has to offer
+ * fast contains, add and remove.
+ */
+public interface AdjacencyStorage {
+
+    /**
+     * Degree up to which {@link #ADAPTIVE} keeps successors in a plain array.
+     */
+    int DEFAULT_THRESHOLD = 16;
+
+    /**
+     * Unsorted linked list: O(d) add because of the duplicate check, and O(d) removal.
+     */
+    AdjacencyStorage LINKED_LIST = new AdjacencyStorage() {
+        @Override
+        public <T> Collection<T> create(int expectedDegree) {
+            return new LinkedList<>() {
+                @Override
+                public boolean add(T element) {
+                    return !contains(element) && super.add(element);
+                }
+            };
+        }
+    };
+
+    /**
+     * Hash set: O(1) expected duplicate check and removal, but one entry object per edge.
+     */
+    AdjacencyStorage HASH_SET = new AdjacencyStorage() {
+        @Override
+        public <T> Collection<T> create(int expectedDegree) {
+            return new HashSet<>(Math.max(16, (int) (expectedDegree / 0.75f) + 1));
+        }
+    };
+
+    /**
+     * Array for small degrees that promotes itself to a hash set above {@link #DEFAULT_THRESHOLD}.
+     * Successors are iterated in insertion order until the promotion, in hash order afterwards.
+     */
+    AdjacencyStorage ADAPTIVE = adaptive(DEFAULT_THRESHOLD);
+
+    /**
+     * @param threshold largest degree that is stored in array mode
+     * @return a storage that keeps up to threshold successors in an array and switches to a hash set beyond;
+     * the iteration order changes from insertion order to hash order with the switch
+     */
+    static AdjacencyStorage adaptive(int threshold) {
+        return new AdjacencyStorage() {
+            @Override
+            public <T> Collection<T> create(int expectedDegree) {
+                return new AdaptiveAdjacencySet<>(threshold, expectedDegree);
+            }
+        };
+    }
+
+    /**
+     * @param expectedDegree number of successors the node is expected to get; 0 if unknown
+     * @return an empty collection for the successors of one node
+     */
+    <T> Collection<T> create(int expectedDegree);
+}
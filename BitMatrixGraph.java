@@ -0,0 +1,320 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adjacency matrix graph that packs every row into a long[] bitset.
+ * One cell costs one bit instead of one byte, and set operations on neighborhoods
+ * (intersection, union, degree) run on 64 cells per instruction.
+ *
+ * @param <T> the type to store in the nodes of the graph
+ */
+public class BitMatrixGraph<T> implements Graph<T> {
+    public static final int INITIAL_CAPACITY = 64;
+    // rows[i] has bit j set if there is an edge i -> j
+    long[][] rows;
+    // index -> element, null for free slots
+    T[] nodes;
+    private Map<T, Integer> map;
+    // slots 0 .. count - 1 have been handed out at least once
+    int count;
+    // indices of removed nodes, reused before count grows
+    private int[] freeSlots;
+    private int freeCount;
+
+    @SuppressWarnings("unchecked")
+    public BitMatrixGraph() {
+        rows = new long[INITIAL_CAPACITY][words(INITIAL_CAPACITY)];
+        nodes = (T[]) new Object[INITIAL_CAPACITY];
+        map = new HashMap<>();
+        freeSlots = new int[INITIAL_CAPACITY];
+        count = 0;
+        freeCount = 0;
+    }
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    @Override
+    public boolean addNodeElement(T element) {
+        if (map.containsKey(element)) {
+            return false;
+        }
+        int index;
+        if (freeCount > 0) {
+            index = freeSlots[--freeCount];
+        } else {
+            if (count == rows.length) {
+                grow();
+            }
+            index = count++;
+        }
+        nodes[index] = element;
+        map.put(element, index);
+        return true;
+    }
+
+    private void grow() {
+        int newSize = rows.length * 2;
+        int newWords = words(newSize);
+        long[][] newRows = new long[newSize][];
+        for (int i = 0; i < rows.length; i++) {
+            newRows[i] = Arrays.copyOf(rows[i], newWords);
+        }
+        for (int i = rows.length; i < newSize; i++) {
+            newRows[i] = new long[newWords];
+        }
+        rows = newRows;
+        nodes = Arrays.copyOf(nodes, newSize);
+        freeSlots = Arrays.copyOf(freeSlots, newSize);
+    }
+
+    @Override
+    public boolean removeNodeElement(T element) {
+        Integer boxed = map.remove(element);
+        if (boxed == null) {
+            return false;
+        }
+        int index = boxed;
+        // delete all outgoing edges:
+        Arrays.fill(rows[index], 0L);
+        // delete all incoming edges:
+        int word = index >>> 6;
+        long mask = ~(1L << index);
+        for (int i = 0; i < count; i++) {
+            rows[i][word] &= mask;
+        }
+        nodes[index] = null;
+        freeSlots[freeCount++] = index;
+        return true;
+    }
+
+    @Override
+    public void addEdge(T from, T to) throws InvalidEdgeException {
+        Integer fromIndex = map.get(from);
+        Integer toIndex = map.get(to);
+        if (fromIndex == null || toIndex == null) {
+            throw new InvalidEdgeException();
+        }
+        rows[fromIndex][toIndex >>> 6] |= 1L << toIndex;
+    }
+
+    @Override
+    public boolean removeEdge(T from, T to) throws InvalidNodeException {
+        Integer fromIndex = map.get(from);
+        Integer toIndex = map.get(to);
+        if (fromIndex == null || toIndex == null) {
+            throw new InvalidNodeException();
+        }
+        long[] row = rows[fromIndex];
+        long bit = 1L << toIndex;
+        boolean existed = (row[toIndex >>> 6] & bit) != 0;
+        row[toIndex >>> 6] &= ~bit;
+        return existed;
+    }
+
+    public boolean hasEdge(T from, T to) throws InvalidNodeException {
+        int toIndex = indexOf(to);
+        return (rows[indexOf(from)][toIndex >>> 6] & (1L << toIndex)) != 0;
+    }
+
+    /**
+     * @return number of outgoing edges of the given node (popcount of its row)
+     */
+    public int degree(T element) throws InvalidNodeException {
+        return popcount(rows[indexOf(element)]);
+    }
+
+    /**
+     * @return number of nodes that are successors of both a and b
+     */
+    public int commonNeighborCount(T a, T b) throws InvalidNodeException {
+        long[] rowA = rows[indexOf(a)];
+        long[] rowB = rows[indexOf(b)];
+        int sum = 0;
+        for (int w = 0; w < rowA.length; w++) {
+            sum += Long.bitCount(rowA[w] & rowB[w]);
+        }
+        return sum;
+    }
+
+    /**
+     * @return number of nodes that are successors of a or b
+     */
+    public int neighborUnionCount(T a, T b) throws InvalidNodeException {
+        long[] rowA = rows[indexOf(a)];
+        long[] rowB = rows[indexOf(b)];
+        int sum = 0;
+        for (int w = 0; w < rowA.length; w++) {
+            sum += Long.bitCount(rowA[w] | rowB[w]);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the successors shared by a and b
+     */
+    public List<T> neighborIntersection(T a, T b) throws InvalidNodeException {
+        long[] rowA = rows[indexOf(a)];
+        long[] rowB = rows[indexOf(b)];
+        long[] result = new long[rowA.length];
+        for (int w = 0; w < rowA.length; w++) {
+            result[w] = rowA[w] & rowB[w];
+        }
+        return elements(result);
+    }
+
+    /**
+     * @return the successors of a together with the successors of b
+     */
+    public List<T> neighborUnion(T a, T b) throws InvalidNodeException {
+        long[] rowA = rows[indexOf(a)];
+        long[] rowB = rows[indexOf(b)];
+        long[] result = new long[rowA.length];
+        for (int w = 0; w < rowA.length; w++) {
+            result[w] = rowA[w] | rowB[w];
+        }
+        return elements(result);
+    }
+
+    @Override
+    public boolean containsNode(T element) {
+        return map.containsKey(element);
+    }
+
+    @Override
+    public List<T> successors(T element) throws InvalidNodeException {
+        return elements(rows[indexOf(element)]);
+    }
+
+    private int indexOf(T element) throws InvalidNodeException {
+        Integer index = map.get(element);
+        if (index == null) {
+            throw new InvalidNodeException();
+        }
+        return index;
+    }
+
+    private List<T> elements(long[] bits) {
+        List<T> list = new ArrayList<>(popcount(bits));
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                list.add(nodes[(w << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
+
+    static int popcount(long[] bits) {
+        int sum = 0;
+        for (long word : bits) {
+            sum += Long.bitCount(word);
+        }
+        return sum;
+    }
+
+    /**
+     * Creates an immutable compressed-sparse-row snapshot of this graph in O(n^2 / 64 + E).
+     *
+     * @return the frozen graph with the live nodes in index order
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenGraph<T> freeze() {
+        int[] remap = new int[count];
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            remap[i] = nodes[i] == null ? -1 : live++;
+        }
+        T[] frozenNodes = (T[]) new Object[live];
+        int[] offsets = new int[live + 1];
+        for (int i = 0; i < count; i++) {
+            if (remap[i] >= 0) {
+                frozenNodes[remap[i]] = nodes[i];
+                offsets[remap[i] + 1] = offsets[remap[i]] + popcount(rows[i]);
+            }
+        }
+        int[] targets = new int[offsets[live]];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            if (remap[i] < 0) {
+                continue;
+            }
+            long[] row = rows[i];
+            for (int w = 0; w < row.length; w++) {
+                long word = row[w];
+                while (word != 0) {
+                    targets[position++] = remap[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+        }
+        return new FrozenGraph<>(frozenNodes, FrozenGraph.intern(frozenNodes), offsets, targets);
+    }
+
+    // builds a bit matrix graph whose indices are the ids of the snapshot
+    static <T> BitMatrixGraph<T> fromFrozen(FrozenGraph<T> frozen) {
+        BitMatrixGraph<T> graph = new BitMatrixGraph<>();
+        int n = frozen.nodeCount();
+        while (graph.rows.length < n) {
+            graph.grow();
+        }
+        for (int u = 0; u < n; u++) {
+            graph.nodes[u] = frozen.nodes[u];
+            graph.map.put(frozen.nodes[u], u);
+            long[] row = graph.rows[u];
+            for (int e = frozen.offsets[u]; e < frozen.offsets[u + 1]; e++) {
+                int v = frozen.targets[e];
+                row[v >>> 6] |= 1L << v;
+            }
+        }
+        graph.count = n;
+        return graph;
+    }
+
+    /**
+     * O(n^2 / 64 + E)
+     *
+     * @return an adjacency list graph with the same nodes and edges
+     */
+    public AdjacencyListGraph<T> convert() {
+        return freeze().toListGraph();
+    }
+
+    public void printGraph() {
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == null) {
+                continue;
+            }
+            System.out.print(nodes[i] + " ->");
+            for (T other : elements(rows[i])) {
+                System.out.print(" " + other);
+            }
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) throws InvalidNodeException, InvalidEdgeException {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>();
+        graph.addNodeElement("A");
+        graph.addNodeElement("B");
+        graph.addNodeElement("C");
+        graph.addNodeElement("D");
+        graph.addEdge("A", "B");
+        graph.addEdge("A", "C");
+        graph.addEdge("D", "B");
+        graph.addEdge("D", "C");
+        graph.addEdge("D", "A");
+        graph.printGraph();
+        System.out.println("neighborIntersection(\"A\", \"D\"): " + graph.neighborIntersection("A", "D"));
+        System.out.println("neighborUnion(\"A\", \"D\"): " + graph.neighborUnion("A", "D"));
+        System.out.println("degree(\"D\"): " + graph.degree("D"));
+        System.out.println("removeNodeElement(\"B\"):");
+        graph.removeNodeElement("B");
+        graph.printGraph();
+    }
+}
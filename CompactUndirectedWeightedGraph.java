@@ -0,0 +1,379 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Undirected weighted graph that stores its edges as parallel primitive arrays: edge i connects the node slots
+ * u[i] and v[i] with weight w[i]. Per node slot the indices of its edges are kept in compressed-sparse-row
+ * incidence lists, which are rebuilt lazily after edges were added and patched in place when edges are removed.
+ * No object is allocated per edge; {@link Edge} objects are only created by the views returned from
+ * {@link #edge(int)}, {@link #edges()} and {@link #edges(Object)}.
+ * A self-loop appears twice in the incidence list of its node, like in AdjacencyListUndirectedWeightedGraph.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public class CompactUndirectedWeightedGraph<T> implements UndirectedWeightedGraph<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // slot -> element, null for free slots
+    T[] nodes;
+    private final Map<T, Integer> ids;
+    // high-water mark of handed-out slots
+    int slots;
+    private int[] freeSlots;
+    private int freeCount;
+
+    int[] u;
+    int[] v;
+    int[] w;
+    int size;
+
+    // edges of slot s: incidence[offsets[s]] .. incidence[offsets[s] + rowSize[s] - 1]; null if it must be rebuilt
+    private int[] offsets;
+    private int[] rowSize;
+    private int[] incidence;
+
+    public CompactUndirectedWeightedGraph() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param expectedNodes number of nodes to allocate room for
+     * @param expectedEdges number of edges to allocate room for
+     */
+    @SuppressWarnings("unchecked")
+    public CompactUndirectedWeightedGraph(int expectedNodes, int expectedEdges) {
+        nodes = (T[]) new Object[Math.max(expectedNodes, INITIAL_CAPACITY)];
+        ids = new HashMap<>();
+        freeSlots = new int[INITIAL_CAPACITY];
+        int capacity = Math.max(expectedEdges, INITIAL_CAPACITY);
+        u = new int[capacity];
+        v = new int[capacity];
+        w = new int[capacity];
+    }
+
+    @Override
+    public boolean addNodeElement(T element) {
+        if (ids.containsKey(element)) {
+            return false;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slots == nodes.length) {
+                nodes = Arrays.copyOf(nodes, slots * 2);
+            }
+            slot = slots++;
+        }
+        nodes[slot] = element;
+        ids.put(element, slot);
+        offsets = null;
+        return true;
+    }
+
+    /**
+     * Removes the node and all its edges. O(V + E)
+     */
+    @Override
+    public boolean removeNodeElement(T element) {
+        Integer slot = ids.remove(element);
+        if (slot == null) {
+            return false;
+        }
+        int write = 0;
+        for (int i = 0; i < size; i++) {
+            if (u[i] != slot && v[i] != slot) {
+                u[write] = u[i];
+                v[write] = v[i];
+                w[write++] = w[i];
+            }
+        }
+        size = write;
+        nodes[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        offsets = null;
+        return true;
+    }
+
+    @Override
+    public void addEdge(T t1, T t2, int weight) throws InvalidEdgeException {
+        Integer slot1 = ids.get(t1);
+        Integer slot2 = ids.get(t2);
+        if (slot1 == null || slot2 == null) {
+            throw new InvalidEdgeException();
+        }
+        link(slot1, slot2, weight);
+    }
+
+    // adds the edge between two slots without validating them
+    void link(int slot1, int slot2, int weight) {
+        if (size == u.length) {
+            u = Arrays.copyOf(u, size * 2);
+            v = Arrays.copyOf(v, size * 2);
+            w = Arrays.copyOf(w, size * 2);
+        }
+        u[size] = slot1;
+        v[size] = slot2;
+        w[size++] = weight;
+        offsets = null;
+    }
+
+    /**
+     * Removes one edge between the two elements. O(degree), after the incidence lists are up to date.
+     */
+    @Override
+    public boolean removeEdge(T t1, T t2) throws InvalidNodeException {
+        int slot1 = slot(t1);
+        int slot2 = slot(t2);
+        index();
+        for (int i = offsets[slot1], end = i + rowSize[slot1]; i < end; i++) {
+            int edge = incidence[i];
+            if ((u[edge] == slot1 && v[edge] == slot2) || (u[edge] == slot2 && v[edge] == slot1)) {
+                removeEdgeAt(edge);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // removes the edge by moving the last edge into its place, keeping the incidence lists valid
+    private void removeEdgeAt(int edge) {
+        removeFromRow(u[edge], edge);
+        removeFromRow(v[edge], edge);
+        int last = --size;
+        if (edge != last) {
+            u[edge] = u[last];
+            v[edge] = v[last];
+            w[edge] = w[last];
+            replaceInRow(u[edge], last, edge);
+            if (v[edge] != u[edge]) {
+                replaceInRow(v[edge], last, edge);
+            }
+        }
+    }
+
+    private void removeFromRow(int slot, int edge) {
+        int start = offsets[slot];
+        int end = start + rowSize[slot];
+        for (int i = start; i < end; i++) {
+            if (incidence[i] == edge) {
+                incidence[i] = incidence[end - 1];
+                rowSize[slot]--;
+                return;
+            }
+        }
+    }
+
+    private void replaceInRow(int slot, int from, int to) {
+        for (int i = offsets[slot], end = i + rowSize[slot]; i < end; i++) {
+            if (incidence[i] == from) {
+                incidence[i] = to;
+            }
+        }
+    }
+
+    // rebuilds the incidence lists by counting sort if edges were added since the last build
+    private void index() {
+        if (offsets != null) {
+            return;
+        }
+        int[] count = new int[slots];
+        for (int i = 0; i < size; i++) {
+            count[u[i]]++;
+            count[v[i]]++;
+        }
+        int[] start = new int[slots + 1];
+        for (int s = 0; s < slots; s++) {
+            start[s + 1] = start[s] + count[s];
+        }
+        int[] entries = new int[start[slots]];
+        int[] fill = Arrays.copyOf(start, slots);
+        for (int i = 0; i < size; i++) {
+            entries[fill[u[i]]++] = i;
+            entries[fill[v[i]]++] = i;
+        }
+        incidence = entries;
+        rowSize = count;
+        offsets = start;
+    }
+
+    private int slot(T element) throws InvalidNodeException {
+        Integer slot = ids.get(element);
+        if (slot == null) {
+            throw new InvalidNodeException();
+        }
+        return slot;
+    }
+
+    public boolean containsNode(T element) {
+        return ids.containsKey(element);
+    }
+
+    public int nodeCount() {
+        return ids.size();
+    }
+
+    public int edgeCount() {
+        return size;
+    }
+
+    /**
+     * @return number of edge ends at the node, a self-loop counts twice
+     */
+    public int degree(T element) throws InvalidNodeException {
+        int slot = slot(element);
+        index();
+        return rowSize[slot];
+    }
+
+    /**
+     * @param index in [0, edgeCount()); indices change when edges or nodes are removed
+     * @return a new Edge object for the edge at the index
+     */
+    public Edge<T> edge(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new Edge<>(nodes[u[index]], nodes[v[index]], w[index]);
+    }
+
+    /**
+     * @return a read-only view of all edges, materializing an Edge per access
+     */
+    public List<Edge<T>> edges() {
+        return new AbstractList<>() {
+            @Override
+            public Edge<T> get(int index) {
+                return edge(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return a read-only view of the edges at the node, materializing an Edge per access;
+     * it must not be used after the graph was modified
+     */
+    public List<Edge<T>> edges(T element) throws InvalidNodeException {
+        int slot = slot(element);
+        index();
+        int start = offsets[slot];
+        int length = rowSize[slot];
+        int[] entries = incidence;
+        return new AbstractList<>() {
+            @Override
+            public Edge<T> get(int index) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return edge(entries[start + index]);
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    // slot -> dense id, -1 for free slots; null if there are no free slots
+    private int[] denseIds() {
+        if (freeCount == 0) {
+            return null;
+        }
+        int[] dense = new int[slots];
+        int next = 0;
+        for (int s = 0; s < slots; s++) {
+            dense[s] = nodes[s] == null ? -1 : next++;
+        }
+        return dense;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] denseNodes() {
+        T[] dense = (T[]) new Object[ids.size()];
+        int next = 0;
+        for (int s = 0; s < slots; s++) {
+            if (nodes[s] != null) {
+                dense[next++] = nodes[s];
+            }
+        }
+        return dense;
+    }
+
+    /**
+     * @return the edges with dense node ids in the order of {@link #freeze()}, sharing no arrays with this graph
+     */
+    public EdgeList edgeList() {
+        int[] dense = denseIds();
+        int[] edgeU = Arrays.copyOf(u, size);
+        int[] edgeV = Arrays.copyOf(v, size);
+        if (dense != null) {
+            for (int i = 0; i < size; i++) {
+                edgeU[i] = dense[edgeU[i]];
+                edgeV[i] = dense[edgeV[i]];
+            }
+        }
+        return new EdgeList(ids.size(), size, edgeU, edgeV, Arrays.copyOf(w, size));
+    }
+
+    /**
+     * Creates an immutable compressed-sparse-row snapshot of this graph. O(V + E)
+     *
+     * @return the frozen graph
+     */
+    public FrozenWeightedGraph<T> freeze() {
+        T[] dense = denseNodes();
+        EdgeList edges = edgeList();
+        int n = dense.length;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[edges.u[i] + 1]++;
+            offsets[edges.v[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[targets.length];
+        for (int i = 0; i < size; i++) {
+            int a = edges.u[i];
+            int b = edges.v[i];
+            targets[fill[a]] = b;
+            weights[fill[a]++] = edges.w[i];
+            targets[fill[b]] = a;
+            weights[fill[b]++] = edges.w[i];
+        }
+        return new FrozenWeightedGraph<>(dense, FrozenGraph.intern(dense), offsets, targets, weights);
+    }
+
+    public static void main(String[] args) throws InvalidEdgeException, InvalidNodeException {
+        CompactUndirectedWeightedGraph<Character> graph = new CompactUndirectedWeightedGraph<>();
+        graph.addNodeElement('A');
+        graph.addNodeElement('B');
+        graph.addNodeElement('C');
+        graph.addNodeElement('D');
+        graph.addEdge('A', 'B', 30);
+        graph.addEdge('A', 'C', 40);
+        graph.addEdge('B', 'C', 10);
+        graph.addEdge('C', 'D', 20);
+        System.out.println(graph.degree('C'));
+        graph.removeEdge('C', 'A');
+        graph.removeNodeElement('D');
+        for (Edge<Character> edge : graph.edges()) {
+            System.out.println(edge.getT1() + " <-> " + edge.getT2() + " (" + edge.getWeight() + ")");
+        }
+        graph.freeze().toGraph().kruskal().print();
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe directed graph with one lock per node and copy-on-write adjacency arrays.
+ * Writers lock only the two endpoints of an edge (in a fixed order, so they cannot deadlock),
+ * so updates on disjoint nodes run in parallel. Readers never lock: they read the current
+ * successor array of a node, which is an immutable, consistent snapshot of that node.
+ *
+ * @param <T> the type to store in the nodes of the graph
+ */
+public class ConcurrentAdjacencyListGraph<T> implements Graph<T> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private static final class Node<T> {
+        final T element;
+        // fixed lock order between nodes
+        final long order;
+        final ReentrantLock lock = new ReentrantLock();
+        // replaced, never modified, while holding lock
+        volatile Object[] successors = EMPTY;
+        volatile Object[] predecessors = EMPTY;
+        // set under lock, afterwards no edge can be added to or from this node
+        volatile boolean removed;
+        // set under the monitor of the node once a removal has freed the map entry
+        boolean unlinked;
+
+        Node(T element, long order) {
+            this.element = element;
+            this.order = order;
+        }
+    }
+
+    private final Map<T, Node<T>> map = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public boolean addNodeElement(T element) {
+        Node<T> node = new Node<>(element, sequence.getAndIncrement());
+        while (true) {
+            Node<T> existing = map.putIfAbsent(element, node);
+            if (existing == null) {
+                return true;
+            }
+            if (!existing.removed) {
+                return false;
+            }
+            // a removal is still unlinking the old node and frees the entry when it is done
+            awaitUnlinked(existing);
+        }
+    }
+
+    // blocks until the removal of the node has freed its map entry; keeps a pending interrupt
+    private static void awaitUnlinked(Node<?> node) {
+        boolean interrupted = false;
+        synchronized (node) {
+            while (!node.unlinked) {
+                try {
+                    node.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean removeNodeElement(T element) {
+        Node<T> node = map.get(element);
+        if (node == null) {
+            return false;
+        }
+        node.lock.lock();
+        try {
+            if (node.removed) {
+                return false;
+            }
+            node.removed = true;
+        } finally {
+            node.lock.unlock();
+        }
+        // the arrays can only shrink from now on, so these snapshots cover every remaining edge
+        for (Object other : node.predecessors) {
+            Node<T> predecessor = map.get(other);
+            if (predecessor != null && predecessor != node) {
+                lock(predecessor, node);
+                try {
+                    predecessor.successors = without(predecessor.successors, element);
+                } finally {
+                    unlock(predecessor, node);
+                }
+            }
+        }
+        for (Object other : node.successors) {
+            Node<T> successor = map.get(other);
+            if (successor != null && successor != node) {
+                lock(successor, node);
+                try {
+                    successor.predecessors = without(successor.predecessors, element);
+                } finally {
+                    unlock(successor, node);
+                }
+            }
+        }
+        // the entry stays until here, so the element cannot be added again while edges still name it
+        map.remove(element, node);
+        synchronized (node) {
+            node.unlinked = true;
+            node.notifyAll();
+        }
+        return true;
+    }
+
+    @Override
+    public void addEdge(T from, T to) throws InvalidEdgeException {
+        Node<T> fromNode = map.get(from);
+        Node<T> toNode = map.get(to);
+        if (fromNode == null || toNode == null) {
+            throw new InvalidEdgeException();
+        }
+        lock(fromNode, toNode);
+        try {
+            if (fromNode.removed || toNode.removed) {
+                throw new InvalidEdgeException();
+            }
+            if (indexOf(fromNode.successors, to) < 0) {
+                fromNode.successors = with(fromNode.successors, to);
+                toNode.predecessors = with(toNode.predecessors, from);
+            }
+        } finally {
+            unlock(fromNode, toNode);
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T from, T to) throws InvalidNodeException {
+        Node<T> fromNode = map.get(from);
+        Node<T> toNode = map.get(to);
+        if (fromNode == null || toNode == null) {
+            throw new InvalidNodeException();
+        }
+        lock(fromNode, toNode);
+        try {
+            if (fromNode.removed || toNode.removed) {
+                throw new InvalidNodeException();
+            }
+            if (indexOf(fromNode.successors, to) < 0) {
+                return false;
+            }
+            fromNode.successors = without(fromNode.successors, to);
+            toNode.predecessors = without(toNode.predecessors, from);
+            return true;
+        } finally {
+            unlock(fromNode, toNode);
+        }
+    }
+
+    @Override
+    public boolean containsNode(T element) {
+        Node<T> node = map.get(element);
+        return node != null && !node.removed;
+    }
+
+    /**
+     * Does not block; the result is a snapshot that later updates do not change.
+     *
+     * @return the successors of the node at one point in time
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    @Override
+    public List<T> successors(T element) throws InvalidNodeException {
+        return view(node(element).successors);
+    }
+
+    /**
+     * Does not block; the result is a snapshot that later updates do not change.
+     *
+     * @return the predecessors of the node at one point in time
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    public List<T> predecessors(T element) throws InvalidNodeException {
+        return view(node(element).predecessors);
+    }
+
+    /**
+     * @return a live, weakly consistent view of the elements of the graph
+     */
+    public Set<T> nodes() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    /**
+     * Creates a CSR snapshot without blocking writers. The rows of the individual nodes are consistent,
+     * edges to nodes removed while the snapshot was taken are dropped.
+     *
+     * @return the frozen graph
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenGraph<T> freeze() {
+        Node<T>[] nodes = map.values().stream().filter(node -> !node.removed).toArray(Node[]::new);
+        T[] elements = (T[]) new Object[nodes.length];
+        Object[][] rows = new Object[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            elements[i] = nodes[i].element;
+            rows[i] = nodes[i].successors;
+        }
+        Map<T, Integer> ids = FrozenGraph.intern(elements);
+        int[] offsets = new int[nodes.length + 1];
+        int[] targets = new int[16];
+        int position = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            for (Object other : rows[i]) {
+                Integer id = ids.get(other);
+                if (id != null) {
+                    if (position == targets.length) {
+                        targets = Arrays.copyOf(targets, position * 2);
+                    }
+                    targets[position++] = id;
+                }
+            }
+            offsets[i + 1] = position;
+        }
+        return new FrozenGraph<>(elements, ids, offsets, Arrays.copyOf(targets, position));
+    }
+
+    private Node<T> node(T element) throws InvalidNodeException {
+        Node<T> node = map.get(element);
+        if (node == null || node.removed) {
+            throw new InvalidNodeException();
+        }
+        return node;
+    }
+
+    private static void lock(Node<?> a, Node<?> b) {
+        if (a == b) {
+            a.lock.lock();
+        } else if (a.order < b.order) {
+            a.lock.lock();
+            b.lock.lock();
+        } else {
+            b.lock.lock();
+            a.lock.lock();
+        }
+    }
+
+    private static void unlock(Node<?> a, Node<?> b) {
+        a.lock.unlock();
+        if (a != b) {
+            b.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> view(Object[] array) {
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(array));
+    }
+
+    private static int indexOf(Object[] array, Object element) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object[] with(Object[] array, Object element) {
+        Object[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = element;
+        return copy;
+    }
+
+    private static Object[] without(Object[] array, Object element) {
+        int index = indexOf(array, element);
+        if (index < 0) {
+            return array;
+        }
+        if (array.length == 1) {
+            return EMPTY;
+        }
+        Object[] copy = new Object[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find over the int ids 0 .. size - 1 that can be used by many threads at once.
+ * A root is always linked below the root with the larger id by a single CAS, so no cycle can arise;
+ * find uses path halving, where every shortcut is a CAS that only ever moves a parent pointer closer to the root.
+ */
+public final class ConcurrentDisjointSet {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentDisjointSet(int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * @return the current representative of the set containing x
+     */
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets of a and b.
+     *
+     * @return true, if this call merged two different sets; false, if a and b were already in the same set.
+     */
+    public boolean union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return false;
+            }
+            if (a > b) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            // fails if a stopped being a root in the meantime, then try again from the new roots
+            if (parent.compareAndSet(a, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean connected(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return true;
+            }
+            // a root is never linked again once it has a parent, so a still being a root means they differ
+            if (parent.get(a) == a) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+}
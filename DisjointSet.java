@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+/**
+ * Union-find over the int ids 0 .. size - 1 with path compression and union by rank.
+ * A union or find costs amortized almost constant time.
+ */
+public final class DisjointSet {
+    private final int[] parent;
+    private final byte[] rank;
+    private int components;
+
+    /**
+     * @param size number of elements, every element starts in its own set
+     */
+    public DisjointSet(int size) {
+        parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        rank = new byte[size];
+        components = size;
+    }
+
+    /**
+     * @return the representative of the set containing x
+     */
+    public int find(int x) {
+        int root = x;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[x] != root) {
+            int next = parent[x];
+            parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets of a and b.
+     *
+     * @return true, if a and b were in different sets before.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else {
+            parent[rootB] = rootA;
+            if (rank[rootA] == rank[rootB]) {
+                rank[rootA]++;
+            }
+        }
+        components--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * @return number of disjoint sets
+     */
+    public int components() {
+        return components;
+    }
+
+    public int size() {
+        return parent.length;
+    }
+
+    @Override
+    public String toString() {
+        int[] roots = new int[parent.length];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = find(i);
+        }
+        return Arrays.toString(roots);
+    }
+}
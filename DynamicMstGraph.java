@@ -0,0 +1,444 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Weighted graph that keeps a minimum spanning forest up to date while edges and nodes are added and removed.
+ * The forest is stored in a link-cut tree in which every forest edge is a node of its own between its two
+ * endpoints, so the heaviest edge on the forest path between two nodes is found in amortized O(log V).
+ * <ul>
+ * <li>Inserting an edge: if its endpoints are in different trees, it joins the forest; otherwise it replaces the
+ * heaviest edge on the path between them if it is lighter. O(log V)</li>
+ * <li>Removing a forest edge: both halves of its tree are explored alternately, node by node, until the smaller
+ * one is complete; the lightest non-forest edge leaving the smaller half takes its place.
+ * O(log V + the edges at the smaller half), which is small when the removed edge splits off a small subtree.</li>
+ * <li>Removing a node: its non-forest edges go first, then every forest edge as above.</li>
+ * </ul>
+ * Deleting a forest edge is not polylogarithmic: when both halves are large, the search touches O(E) edges.
+ * A level structure with amortized polylog deletions (Holm, de Lichtenberg and Thorup) would bound this,
+ * but it costs O(log V) copies of the incidence lists and is not implemented; the scan of the smaller half
+ * is the accepted trade-off for the common case of small subtrees.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public class DynamicMstGraph<T> extends AdjacencyListUndirectedWeightedGraph<T> {
+
+    // an edge with its link-cut node while it is part of the forest
+    private static final class TrackedEdge<T> extends Edge<T> {
+        int node = -1;
+
+        TrackedEdge(T t1, T t2, int weight) {
+            super(t1, t2, weight);
+        }
+    }
+
+    private final LinkCutTree tree = new LinkCutTree();
+    private final Map<T, Integer> vertices = new HashMap<>();
+    // link-cut node -> forest edge, null for vertices
+    private final List<TrackedEdge<T>> owners = new ArrayList<>();
+    private final Set<TrackedEdge<T>> forestEdges = new HashSet<>();
+    private long forestWeight;
+
+    public DynamicMstGraph() {
+        super();
+    }
+
+    @Override
+    public boolean addNodeElement(T element) {
+        if (!super.addNodeElement(element)) {
+            return false;
+        }
+        vertices.put(element, allocate(Integer.MIN_VALUE, null));
+        return true;
+    }
+
+    @Override
+    public boolean removeNodeElement(T element) {
+        List<Edge<T>> edges = map.get(element);
+        if (edges == null) {
+            return false;
+        }
+        // non-forest edges first, so no replacement search picks another edge of this node
+        for (Edge<T> edge : new ArrayList<>(edges)) {
+            if (((TrackedEdge<T>) edge).node < 0) {
+                unlink(edge);
+            }
+        }
+        // removes the forest edges through unlink
+        super.removeNodeElement(element);
+        tree.release(vertices.remove(element));
+        return true;
+    }
+
+    @Override
+    Edge<T> link(T t1, T t2, int weight) {
+        TrackedEdge<T> edge = new TrackedEdge<>(t1, t2, weight);
+        map.get(t1).add(edge);
+        map.get(t2).add(edge);
+        if (t1.equals(t2)) {
+            // a self-loop never is part of the forest nor a replacement
+            return edge;
+        }
+        int a = vertices.get(t1);
+        int b = vertices.get(t2);
+        if (!tree.connected(a, b)) {
+            join(edge);
+            return edge;
+        }
+        // null if the path only has edges of weight Integer.MIN_VALUE, which ties with the vertices
+        TrackedEdge<T> heaviest = owners.get(tree.pathMax(a, b));
+        if (heaviest != null && heaviest.getWeight() > weight) {
+            split(heaviest);
+            join(edge);
+        }
+        return edge;
+    }
+
+    @Override
+    void unlink(Edge<T> edge) {
+        super.unlink(edge);
+        TrackedEdge<T> tracked = (TrackedEdge<T>) edge;
+        if (tracked.node < 0) {
+            return;
+        }
+        split(tracked);
+        TrackedEdge<T> replacement = lightestReplacement(tracked.getT1(), tracked.getT2());
+        if (replacement != null) {
+            join(replacement);
+        }
+    }
+
+    // lightest non-forest edge between the trees of a and b, which were just split
+    private TrackedEdge<T> lightestReplacement(T a, T b) {
+        Set<T> sideA = new HashSet<>();
+        Set<T> sideB = new HashSet<>();
+        ArrayDeque<T> queueA = new ArrayDeque<>();
+        ArrayDeque<T> queueB = new ArrayDeque<>();
+        sideA.add(a);
+        queueA.add(a);
+        sideB.add(b);
+        queueB.add(b);
+        Set<T> smaller;
+        while (true) {
+            if (queueA.isEmpty()) {
+                smaller = sideA;
+                break;
+            }
+            expand(queueA.poll(), sideA, queueA);
+            if (queueB.isEmpty()) {
+                smaller = sideB;
+                break;
+            }
+            expand(queueB.poll(), sideB, queueB);
+        }
+        TrackedEdge<T> lightest = null;
+        for (T node : smaller) {
+            for (Edge<T> edge : map.get(node)) {
+                TrackedEdge<T> candidate = (TrackedEdge<T>) edge;
+                if (candidate.node < 0 && !smaller.contains(candidate.getOtherNode(node))
+                        && (lightest == null || candidate.getWeight() < lightest.getWeight())) {
+                    lightest = candidate;
+                }
+            }
+        }
+        return lightest;
+    }
+
+    // adds the forest neighbors of the node to the side
+    private void expand(T node, Set<T> side, ArrayDeque<T> queue) {
+        for (Edge<T> edge : map.get(node)) {
+            if (((TrackedEdge<T>) edge).node >= 0) {
+                T other = edge.getOtherNode(node);
+                if (side.add(other)) {
+                    queue.add(other);
+                }
+            }
+        }
+    }
+
+    private void join(TrackedEdge<T> edge) {
+        edge.node = allocate(edge.getWeight(), edge);
+        tree.link(vertices.get(edge.getT1()), edge.node);
+        tree.link(edge.node, vertices.get(edge.getT2()));
+        forestEdges.add(edge);
+        forestWeight += edge.getWeight();
+    }
+
+    private void split(TrackedEdge<T> edge) {
+        tree.cut(vertices.get(edge.getT1()), edge.node);
+        tree.cut(edge.node, vertices.get(edge.getT2()));
+        tree.release(edge.node);
+        owners.set(edge.node, null);
+        edge.node = -1;
+        forestEdges.remove(edge);
+        forestWeight -= edge.getWeight();
+    }
+
+    private int allocate(int value, TrackedEdge<T> owner) {
+        int node = tree.allocate(value);
+        while (owners.size() <= node) {
+            owners.add(null);
+        }
+        owners.set(node, owner);
+        return node;
+    }
+
+    /**
+     * @return the edges of the current minimum spanning forest, as an unmodifiable view
+     */
+    public Set<Edge<T>> forestEdges() {
+        return Collections.unmodifiableSet(forestEdges);
+    }
+
+    /**
+     * @return total weight of the current minimum spanning forest
+     */
+    public long forestWeight() {
+        return forestWeight;
+    }
+
+    /**
+     * @return true, if both elements are in the same tree of the forest.
+     * @throws InvalidNodeException if one of the two elements is not part of the graph
+     */
+    public boolean connected(T t1, T t2) throws InvalidNodeException {
+        Integer a = vertices.get(t1);
+        Integer b = vertices.get(t2);
+        if (a == null || b == null) {
+            throw new InvalidNodeException();
+        }
+        return tree.connected(a, b);
+    }
+
+    /**
+     * @return a new graph with all nodes of this graph and the edges of the current minimum spanning forest
+     */
+    public AdjacencyListUndirectedWeightedGraph<T> forest() {
+        AdjacencyListUndirectedWeightedGraph<T> forest = new AdjacencyListUndirectedWeightedGraph<>();
+        for (T node : map.keySet()) {
+            forest.addNodeElement(node);
+        }
+        for (Edge<T> edge : forestEdges) {
+            forest.link(edge.getT1(), edge.getT2(), edge.getWeight());
+        }
+        return forest;
+    }
+
+    /**
+     * Link-cut tree over int nodes, each with an int value; path queries return the node of maximum value.
+     * Every preferred path is a splay tree ordered by depth; reversing a path makes its deepest node the root.
+     */
+    private static final class LinkCutTree {
+        private int[] left = new int[16];
+        private int[] right = new int[16];
+        private int[] parent = new int[16];
+        private int[] value = new int[16];
+        // node of maximum value in the splay subtree
+        private int[] max = new int[16];
+        private boolean[] reversed = new boolean[16];
+        private int size;
+        private int[] free = new int[16];
+        private int freeCount;
+        // splay path, reused between calls
+        private int[] stack = new int[16];
+
+        int allocate(int nodeValue) {
+            int x;
+            if (freeCount > 0) {
+                x = free[--freeCount];
+            } else {
+                if (size == left.length) {
+                    int capacity = size * 2;
+                    left = Arrays.copyOf(left, capacity);
+                    right = Arrays.copyOf(right, capacity);
+                    parent = Arrays.copyOf(parent, capacity);
+                    value = Arrays.copyOf(value, capacity);
+                    max = Arrays.copyOf(max, capacity);
+                    reversed = Arrays.copyOf(reversed, capacity);
+                }
+                x = size++;
+            }
+            left[x] = -1;
+            right[x] = -1;
+            parent[x] = -1;
+            value[x] = nodeValue;
+            max[x] = x;
+            reversed[x] = false;
+            return x;
+        }
+
+        // the node must not be linked anymore
+        void release(int x) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = x;
+        }
+
+        void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        // x and y must be adjacent
+        void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            // the path is x - y, so x is the left child of y and has no right child
+            left[y] = -1;
+            parent[x] = -1;
+            update(y);
+        }
+
+        boolean connected(int x, int y) {
+            return x == y || findRoot(x) == findRoot(y);
+        }
+
+        // node of maximum value on the path between x and y, which must be connected
+        int pathMax(int x, int y) {
+            makeRoot(x);
+            access(y);
+            return max[y];
+        }
+
+        private int findRoot(int x) {
+            access(x);
+            int root = x;
+            push(root);
+            while (left[root] >= 0) {
+                root = left[root];
+                push(root);
+            }
+            splay(root);
+            return root;
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            reversed[x] = !reversed[x];
+        }
+
+        private void access(int x) {
+            int last = -1;
+            for (int y = x; y >= 0; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                update(y);
+                last = y;
+            }
+            splay(x);
+        }
+
+        private boolean isSplayRoot(int x) {
+            int p = parent[x];
+            return p < 0 || (left[p] != x && right[p] != x);
+        }
+
+        private void push(int x) {
+            if (reversed[x]) {
+                int swap = left[x];
+                left[x] = right[x];
+                right[x] = swap;
+                if (left[x] >= 0) {
+                    reversed[left[x]] = !reversed[left[x]];
+                }
+                if (right[x] >= 0) {
+                    reversed[right[x]] = !reversed[right[x]];
+                }
+                reversed[x] = false;
+            }
+        }
+
+        private void update(int x) {
+            int best = x;
+            if (left[x] >= 0 && value[max[left[x]]] > value[best]) {
+                best = max[left[x]];
+            }
+            if (right[x] >= 0 && value[max[right[x]]] > value[best]) {
+                best = max[right[x]];
+            }
+            max[x] = best;
+        }
+
+        private void rotate(int x) {
+            int p = parent[x];
+            int g = parent[p];
+            boolean pIsRoot = isSplayRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] >= 0) {
+                    parent[right[x]] = p;
+                }
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] >= 0) {
+                    parent[left[x]] = p;
+                }
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!pIsRoot) {
+                if (left[g] == p) {
+                    left[g] = x;
+                } else {
+                    right[g] = x;
+                }
+            }
+            update(p);
+            update(x);
+        }
+
+        private void splay(int x) {
+            // push pending reversals from the splay root down to x, without recursion
+            int depth = 0;
+            for (int y = x; ; y = parent[y]) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = y;
+                if (isSplayRoot(y)) {
+                    break;
+                }
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                push(stack[i]);
+            }
+            while (!isSplayRoot(x)) {
+                int p = parent[x];
+                if (!isSplayRoot(p)) {
+                    int g = parent[p];
+                    rotate((left[g] == p) == (left[p] == x) ? p : x);
+                }
+                rotate(x);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InvalidEdgeException, InvalidNodeException {
+        DynamicMstGraph<Character> graph = new DynamicMstGraph<>();
+        for (char c = 'A'; c <= 'F'; c++) {
+            graph.addNodeElement(c);
+        }
+        graph.addEdge('A', 'B', 30);
+        graph.addEdge('A', 'C', 40);
+        graph.addEdge('A', 'E', 100);
+        graph.addEdge('A', 'F', 90);
+        graph.addEdge('B', 'C', 10);
+        graph.addEdge('B', 'D', 40);
+        graph.addEdge('C', 'F', 10);
+        graph.addEdge('D', 'E', 30);
+        graph.addEdge('E', 'F', 20);
+        System.out.println(graph.forestWeight());
+        graph.removeEdge('C', 'F');
+        System.out.println(graph.forestWeight());
+        graph.forest().print();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Edges stored as parallel primitive arrays: edge i connects u[i] and v[i] and has weight w[i].
+ * Nodes are dense int ids in [0, nodeCount). w is null for unweighted edge lists.
+ */
+public final class EdgeList {
+    final int nodeCount;
+    final int size;
+    final int[] u;
+    final int[] v;
+    final int[] w;
+
+    public EdgeList(int nodeCount, int size, int[] u, int[] v, int[] w) {
+        this.nodeCount = nodeCount;
+        this.size = size;
+        this.u = u;
+        this.v = v;
+        this.w = w;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isWeighted() {
+        return w != null;
+    }
+
+    public int u(int edge) {
+        return u[edge];
+    }
+
+    public int v(int edge) {
+        return v[edge];
+    }
+
+    public int weight(int edge) {
+        return w == null ? 1 : w[edge];
+    }
+}
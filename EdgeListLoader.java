@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk loader for edge list files with int node ids.
+ * The file is memory-mapped in chunks which are parsed in parallel into primitive arrays,
+ * then the adjacency structures are built in two passes: count the degrees, then fill preallocated storage.
+ * No per-edge existence checks or exceptions are involved; every id in [0, max id] becomes a node.
+ * <p>
+ * TEXT: one edge per line, "from to" or "from to weight", separated by spaces, tabs or commas.
+ * Lines starting with '#' or '%' are comments.
+ * <p>
+ * BINARY: consecutive little-endian int records (from, to) or (from, to, weight) without header.
+ */
+public final class EdgeListLoader {
+
+    public enum Format {
+        TEXT,
+        BINARY
+    }
+
+    // bytes per parallel chunk, every chunk is mapped on its own
+    private static final long CHUNK_SIZE = 64L << 20;
+    // a text line may reach this far over the end of its chunk
+    private static final int LINE_SLACK = 1 << 16;
+
+    private final Format format;
+    private final boolean weighted;
+
+    /**
+     * @param format   layout of the file
+     * @param weighted true, if every edge carries a weight as third value
+     */
+    public EdgeListLoader(Format format, boolean weighted) {
+        this.format = format;
+        this.weighted = weighted;
+    }
+
+    /**
+     * Parses the file into primitive arrays.
+     *
+     * @param file the edge list file
+     * @return all edges in file order
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public EdgeList read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long chunkSize = CHUNK_SIZE;
+            if (format == Format.BINARY) {
+                int recordSize = weighted ? 12 : 8;
+                if (fileSize % recordSize != 0) {
+                    throw new IOException("file size " + fileSize + " is not a multiple of " + recordSize);
+                }
+                chunkSize -= chunkSize % recordSize;
+            }
+            int chunks = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            long step = chunkSize;
+            Part[] parts;
+            try {
+                parts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+                    long start = c * step;
+                    long end = Math.min(fileSize, start + step);
+                    try {
+                        return format == Format.TEXT
+                                ? parseText(channel, fileSize, start, end)
+                                : parseBinary(channel, start, end);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).toArray(Part[]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return concat(parts);
+        }
+    }
+
+    /**
+     * @return a CSR snapshot with one directed edge per line of the file; every row lists its targets in file order
+     */
+    public FrozenGraph<Integer> loadFrozen(Path file) throws IOException {
+        EdgeList edges = read(file);
+        int n = edges.nodeCount;
+        // first pass: counting out-degrees
+        AtomicIntegerArray degree = new AtomicIntegerArray(n);
+        IntStream.range(0, edges.size).parallel().forEach(i -> degree.incrementAndGet(edges.u[i]));
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + degree.get(i);
+        }
+        // second pass: filling the rows with edge indices, which arrive in any order
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+        int[] targets = new int[edges.size];
+        IntStream.range(0, edges.size).parallel().forEach(i -> targets[cursor.getAndIncrement(edges.u[i])] = i);
+        // sorting the indices restores the file order, then they are replaced by the targets
+        IntStream.range(0, n).parallel().forEach(u -> {
+            Arrays.sort(targets, offsets[u], offsets[u + 1]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                targets[e] = edges.v[targets[e]];
+            }
+        });
+        Integer[] nodes = nodes(n);
+        return new FrozenGraph<>(nodes, FrozenGraph.intern(nodes), offsets, targets);
+    }
+
+    /**
+     * @return a directed adjacency list graph with one edge per line of the file
+     */
+    public AdjacencyListGraph<Integer> loadListGraph(Path file) throws IOException {
+        return loadFrozen(file).toListGraph();
+    }
+
+    /**
+     * @return an undirected weighted graph with one edge per line of the file; weight 1 for unweighted files
+     */
+    public AdjacencyListUndirectedWeightedGraph<Integer> loadWeightedGraph(Path file) throws IOException {
+        EdgeList edges = read(file);
+        int n = edges.nodeCount;
+        // first pass: counting degrees of both endpoints
+        AtomicIntegerArray degree = new AtomicIntegerArray(n);
+        IntStream.range(0, edges.size).parallel().forEach(i -> {
+            degree.incrementAndGet(edges.u[i]);
+            degree.incrementAndGet(edges.v[i]);
+        });
+        Integer[] nodes = nodes(n);
+        List<Edge<Integer>>[] lists = newLists(n);
+        AdjacencyListUndirectedWeightedGraph<Integer> graph = new AdjacencyListUndirectedWeightedGraph<>();
+        graph.map = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int i = 0; i < n; i++) {
+            lists[i] = new ArrayList<>(degree.get(i));
+            graph.map.put(nodes[i], lists[i]);
+        }
+        // second pass: filling the preallocated lists
+        for (int i = 0; i < edges.size; i++) {
+            Edge<Integer> edge = new Edge<>(nodes[edges.u[i]], nodes[edges.v[i]], edges.weight(i));
+            lists[edges.u[i]].add(edge);
+            lists[edges.v[i]].add(edge);
+        }
+        return graph;
+    }
+
+    private Part parseText(FileChannel channel, long fileSize, long start, long end) throws IOException {
+        // the chunk owns every line that starts in [start, end)
+        long mapStart = start == 0 ? 0 : start - 1;
+        long mapEnd = Math.min(fileSize, end + LINE_SLACK);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int bufferLimit = buffer.limit();
+        int owned = (int) (end - mapStart);
+        Part part = new Part(weighted);
+        int p = 0;
+        if (start != 0) {
+            // the byte before start is included, so p lands on the first line start >= start
+            while (p < bufferLimit && buffer.get(p) != '\n') {
+                p++;
+            }
+            p++;
+        }
+        int[] fields = new int[3];
+        while (p < owned) {
+            int count = 0;
+            while (p < bufferLimit) {
+                byte b = buffer.get(p);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ' ' || b == '\t' || b == ',' || b == '\r') {
+                    p++;
+                    continue;
+                }
+                if (b == '#' || b == '%') {
+                    while (p < bufferLimit && buffer.get(p) != '\n') {
+                        p++;
+                    }
+                    break;
+                }
+                boolean negative = b == '-';
+                if (negative) {
+                    p++;
+                }
+                long value = 0;
+                int digits = 0;
+                while (p < bufferLimit && (b = buffer.get(p)) >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > Integer.MAX_VALUE) {
+                        throw new IOException("number too large at byte " + (mapStart + p));
+                    }
+                    digits++;
+                    p++;
+                }
+                if (digits == 0) {
+                    throw new IOException("unexpected character at byte " + (mapStart + p));
+                }
+                if (count < 3) {
+                    fields[count] = (int) (negative ? -value : value);
+                }
+                count++;
+            }
+            if (p >= bufferLimit && mapEnd < fileSize) {
+                throw new IOException("line at byte " + (mapStart + p) + " is longer than " + LINE_SLACK + " bytes");
+            }
+            // skipping the line break:
+            p++;
+            if (count == 0) {
+                continue;
+            }
+            if (count < (weighted ? 3 : 2)) {
+                throw new IOException("missing value in line before byte " + (mapStart + p));
+            }
+            if (fields[0] < 0 || fields[1] < 0) {
+                throw new IOException("negative node id in line before byte " + (mapStart + p));
+            }
+            part.add(fields[0], fields[1], fields[2]);
+        }
+        return part;
+    }
+
+    private Part parseBinary(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Part part = new Part(weighted);
+        while (buffer.hasRemaining()) {
+            int from = buffer.getInt();
+            int to = buffer.getInt();
+            int weight = weighted ? buffer.getInt() : 0;
+            if (from < 0 || to < 0) {
+                throw new IOException("negative node id at byte " + (start + buffer.position()));
+            }
+            part.add(from, to, weight);
+        }
+        return part;
+    }
+
+    private EdgeList concat(Part[] parts) {
+        long total = 0;
+        int maxId = -1;
+        for (Part part : parts) {
+            total += part.size;
+            maxId = Math.max(maxId, part.maxId);
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("too many edges: " + total);
+        }
+        int[] u = new int[(int) total];
+        int[] v = new int[(int) total];
+        int[] w = weighted ? new int[(int) total] : null;
+        int[] positions = new int[parts.length];
+        for (int i = 1; i < parts.length; i++) {
+            positions[i] = positions[i - 1] + parts[i - 1].size;
+        }
+        IntStream.range(0, parts.length).parallel().forEach(i -> {
+            Part part = parts[i];
+            System.arraycopy(part.u, 0, u, positions[i], part.size);
+            System.arraycopy(part.v, 0, v, positions[i], part.size);
+            if (w != null) {
+                System.arraycopy(part.w, 0, w, positions[i], part.size);
+            }
+        });
+        return new EdgeList(maxId + 1, (int) total, u, v, w);
+    }
+
+    private static Integer[] nodes(int n) {
+        Integer[] nodes = new Integer[n];
+        Arrays.setAll(nodes, Integer::valueOf);
+        return nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<Edge<T>>[] newLists(int n) {
+        return (List<Edge<T>>[]) new List<?>[n];
+    }
+
+    // edges parsed from one chunk
+    private static final class Part {
+        int[] u = new int[1024];
+        int[] v = new int[1024];
+        int[] w;
+        int size;
+        int maxId = -1;
+
+        Part(boolean weighted) {
+            w = weighted ? new int[1024] : null;
+        }
+
+        void add(int from, int to, int weight) {
+            if (size == u.length) {
+                u = Arrays.copyOf(u, size * 2);
+                v = Arrays.copyOf(v, size * 2);
+                if (w != null) {
+                    w = Arrays.copyOf(w, size * 2);
+                }
+            }
+            u[size] = from;
+            v[size] = to;
+            if (w != null) {
+                w[size] = weight;
+            }
+            size++;
+            maxId = Math.max(maxId, Math.max(from, to));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.stream.IntStream;
+
+/**
+ * Orders the edges of an {@link EdgeList} by weight with a parallel LSD radix sort on the int weights:
+ * four stable passes over 8-bit digits, each counting digits per chunk in parallel and then scattering every chunk
+ * to its own precomputed positions in parallel. Passes in which all weights share the digit are skipped,
+ * so small weight ranges need only one or two passes. O(E) without comparisons.
+ */
+public final class EdgeSort {
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+    // minimum edges per chunk
+    private static final int GRAIN = 1 << 16;
+
+    private EdgeSort() {
+    }
+
+    /**
+     * @return the edge indices ordered by ascending weight, ties in index order; the identity for unweighted lists
+     */
+    public static int[] byWeight(EdgeList edges) {
+        int size = edges.size();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        if (edges.w == null) {
+            return order;
+        }
+        // flipping the sign bit makes the unsigned digit order equal to the signed weight order
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = edges.w[i] ^ Integer.MIN_VALUE;
+        }
+        int[] keyBuffer = new int[size];
+        int[] orderBuffer = new int[size];
+        int chunks = Math.max(1, Math.min(size / GRAIN, Runtime.getRuntime().availableProcessors() * 4));
+        int chunkSize = (size + chunks - 1) / Math.max(1, chunks);
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            int[] from = keys;
+            int digitShift = shift;
+            int[][] counts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+                int[] count = new int[BUCKETS];
+                for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                    count[(from[i] >>> digitShift) & (BUCKETS - 1)]++;
+                }
+                return count;
+            }).toArray(int[][]::new);
+            // start position of every (digit, chunk), digit-major so every chunk scatters stably
+            int[][] positions = new int[chunks][BUCKETS];
+            int position = 0;
+            boolean trivial = false;
+            for (int digit = 0; digit < BUCKETS; digit++) {
+                int total = 0;
+                for (int c = 0; c < chunks; c++) {
+                    positions[c][digit] = position + total;
+                    total += counts[c][digit];
+                }
+                trivial |= total == size;
+                position += total;
+            }
+            if (trivial) {
+                continue;
+            }
+            int[] fromOrder = order;
+            int[] toKeys = keyBuffer;
+            int[] toOrder = orderBuffer;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] next = positions[c];
+                for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                    int target = next[(from[i] >>> digitShift) & (BUCKETS - 1)]++;
+                    toKeys[target] = from[i];
+                    toOrder[target] = fromOrder[i];
+                }
+            });
+            keyBuffer = keys;
+            orderBuffer = order;
+            keys = toKeys;
+            order = toOrder;
+        }
+        return order;
+    }
+
+    /**
+     * @return a new edge list with the edges ordered by ascending weight
+     */
+    public static EdgeList sortedByWeight(EdgeList edges) {
+        int[] order = byWeight(edges);
+        int size = edges.size();
+        int[] u = new int[size];
+        int[] v = new int[size];
+        int[] w = edges.w == null ? null : new int[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            int edge = order[i];
+            u[i] = edges.u[edge];
+            v[i] = edges.v[edge];
+            if (w != null) {
+                w[i] = edges.w[edge];
+            }
+        });
+        return new EdgeList(edges.nodeCount(), size, u, v, w);
+    }
+}
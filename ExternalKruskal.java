@@ -0,0 +1,329 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Minimum spanning forest of edge files larger than the heap, with an out-of-core filter-Kruskal.
+ * Input and output use the weighted BINARY format of {@link EdgeListLoader}: little-endian int records
+ * (from, to, weight) without header.
+ * A file with more edges than fit in memory is split by a sampled pivot weight into spill files with the lighter,
+ * the equal and the heavier edges, which are then processed in this order. Every pass drops the edges whose
+ * endpoints are already connected, so the heavy side shrinks before it is touched. Files that fit in memory are
+ * sorted with {@link EdgeSort} and run through Kruskal directly; files with only one weight need no sorting.
+ * Only the {@link DisjointSet} over all nodes stays in memory between the passes, plus one partition of at most
+ * memoryEdges edges (about 28 bytes per edge) at the leaves.
+ */
+public final class ExternalKruskal {
+    private static final int RECORD_BYTES = 12;
+    // records per read or write buffer
+    private static final int BUFFER_RECORDS = 1 << 19;
+    private static final int SAMPLES = 1023;
+    private static final int DEFAULT_MEMORY_EDGES = 1 << 25;
+
+    public static final class Result {
+        private final long edges;
+        private final long weight;
+        private final long spilledBytes;
+
+        Result(long edges, long weight, long spilledBytes) {
+            this.edges = edges;
+            this.weight = weight;
+            this.spilledBytes = spilledBytes;
+        }
+
+        /**
+         * @return number of edges written to the output
+         */
+        public long getEdges() {
+            return edges;
+        }
+
+        /**
+         * @return total weight of the forest
+         */
+        public long getWeight() {
+            return weight;
+        }
+
+        /**
+         * @return bytes written to spill files
+         */
+        public long getSpilledBytes() {
+            return spilledBytes;
+        }
+    }
+
+    private final Path spillDirectory;
+    private final int memoryEdges;
+
+    /**
+     * Spills to the default temporary directory and keeps up to 2^25 edges in memory.
+     */
+    public ExternalKruskal() {
+        this(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_MEMORY_EDGES);
+    }
+
+    /**
+     * @param spillDirectory directory for the temporary partition files, ideally on a local disk
+     * @param memoryEdges    largest partition sorted in memory
+     */
+    public ExternalKruskal(Path spillDirectory, int memoryEdges) {
+        if (memoryEdges < 1) {
+            throw new IllegalArgumentException("memoryEdges must be positive: " + memoryEdges);
+        }
+        this.spillDirectory = spillDirectory;
+        this.memoryEdges = memoryEdges;
+    }
+
+    /**
+     * Scans the input once for the largest node id, then computes the forest.
+     *
+     * @see #run(Path, int, Path)
+     */
+    public Result run(Path input, Path output) throws IOException {
+        int maxId = -1;
+        try (Reader reader = new Reader(input)) {
+            while (reader.next()) {
+                maxId = Math.max(maxId, Math.max(reader.u, reader.v));
+            }
+        }
+        return run(input, maxId + 1, output);
+    }
+
+    /**
+     * @param input     weighted binary edge file; it is only read
+     * @param nodeCount all node ids must be in [0, nodeCount)
+     * @param output    receives the edges of a minimum spanning forest in ascending weight order
+     * @return the size of the forest
+     * @throws IOException if a file cannot be read or written, or the input is no weighted binary edge file
+     */
+    public Result run(Path input, int nodeCount, Path output) throws IOException {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Run run = new Run(nodeCount, new GraphSnapshot.Output(channel));
+            run.process(input, records(input), false);
+            run.out.flush();
+            return new Result(run.edges, run.weight, run.spilledBytes);
+        }
+    }
+
+    private static long records(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size % RECORD_BYTES != 0) {
+            throw new IOException(file + " is no weighted binary edge file, size " + size);
+        }
+        return size / RECORD_BYTES;
+    }
+
+    // state of one computation
+    private final class Run {
+        final DisjointSet components;
+        final GraphSnapshot.Output out;
+        final Random random = new Random(0x5EED);
+        long edges;
+        long weight;
+        long spilledBytes;
+
+        Run(int nodeCount, GraphSnapshot.Output out) {
+            this.components = new DisjointSet(nodeCount);
+            this.out = out;
+        }
+
+        boolean done() {
+            return components.components() <= 1;
+        }
+
+        void process(Path file, long records, boolean spill) throws IOException {
+            try {
+                if (records == 0 || done()) {
+                    return;
+                }
+                if (records <= memoryEdges) {
+                    sortInMemory(file, (int) records);
+                    return;
+                }
+                int pivot = samplePivot(file, records);
+                Path lighter = spillFile();
+                Path equal = spillFile();
+                Path heavier = spillFile();
+                try {
+                    long[] counts = partition(file, pivot, lighter, equal, heavier);
+                    if (spill) {
+                        Files.delete(file);
+                        spill = false;
+                    }
+                    process(lighter, counts[0], true);
+                    acceptAll(equal);
+                    process(heavier, counts[2], true);
+                } finally {
+                    Files.deleteIfExists(lighter);
+                    Files.deleteIfExists(equal);
+                    Files.deleteIfExists(heavier);
+                }
+            } finally {
+                if (spill) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        // loads the edges that still connect two components and runs Kruskal on them
+        private void sortInMemory(Path file, int records) throws IOException {
+            int[] u = new int[records];
+            int[] v = new int[records];
+            int[] w = new int[records];
+            int size = 0;
+            try (Reader reader = new Reader(file)) {
+                while (reader.next()) {
+                    if (components.find(reader.u) != components.find(reader.v)) {
+                        u[size] = reader.u;
+                        v[size] = reader.v;
+                        w[size++] = reader.w;
+                    }
+                }
+            }
+            EdgeList list = new EdgeList(components.size(), size, u, v, w);
+            for (int edge : EdgeSort.byWeight(list)) {
+                accept(u[edge], v[edge], w[edge]);
+                if (done()) {
+                    return;
+                }
+            }
+        }
+
+        // all edges of the file have the same weight, so any order is a valid Kruskal order
+        private void acceptAll(Path file) throws IOException {
+            try (Reader reader = new Reader(file)) {
+                while (!done() && reader.next()) {
+                    accept(reader.u, reader.v, reader.w);
+                }
+            }
+        }
+
+        private void accept(int from, int to, int edgeWeight) throws IOException {
+            if (components.union(from, to)) {
+                out.putInt(from);
+                out.putInt(to);
+                out.putInt(edgeWeight);
+                edges++;
+                weight += edgeWeight;
+            }
+        }
+
+        // median weight of records at random positions
+        private int samplePivot(Path file, long records) throws IOException {
+            int[] samples = new int[SAMPLES];
+            ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    long position = (long) (random.nextDouble() * records) * RECORD_BYTES;
+                    record.clear();
+                    while (record.hasRemaining() && channel.read(record, position + record.position()) >= 0) {
+                        // read the whole record
+                    }
+                    samples[i] = record.getInt(8);
+                }
+            }
+            Arrays.sort(samples);
+            return samples[SAMPLES / 2];
+        }
+
+        // splits the edges that still connect two components by weight; returns the three counts
+        private long[] partition(Path file, int pivot, Path lighter, Path equal, Path heavier) throws IOException {
+            long[] counts = new long[3];
+            try (Reader reader = new Reader(file);
+                 Writer light = new Writer(lighter);
+                 Writer same = new Writer(equal);
+                 Writer heavy = new Writer(heavier)) {
+                while (reader.next()) {
+                    if (components.find(reader.u) == components.find(reader.v)) {
+                        continue;
+                    }
+                    int side = Integer.compare(reader.w, pivot) + 1;
+                    Writer target = side == 0 ? light : side == 1 ? same : heavy;
+                    target.write(reader.u, reader.v, reader.w);
+                    counts[side]++;
+                }
+                spilledBytes += light.out.written + same.out.written + heavy.out.written;
+            }
+            return counts;
+        }
+
+        private Path spillFile() throws IOException {
+            return Files.createTempFile(spillDirectory, "kruskal", ".edges");
+        }
+    }
+
+    // sequential reader of (from, to, weight) records
+    private static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int u;
+        int v;
+        int w;
+
+        Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer.compact();
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // fill the buffer until the file ends
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES) {
+                    if (buffer.hasRemaining()) {
+                        throw new IOException("truncated edge record");
+                    }
+                    return false;
+                }
+            }
+            u = buffer.getInt();
+            v = buffer.getInt();
+            w = buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // buffered writer of (from, to, weight) records
+    private static final class Writer implements Closeable {
+        private final FileChannel channel;
+        final GraphSnapshot.Output out;
+
+        Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            out = new GraphSnapshot.Output(channel);
+        }
+
+        void write(int from, int to, int weight) throws IOException {
+            out.putInt(from);
+            out.putInt(to);
+            out.putInt(weight);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
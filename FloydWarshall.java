@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * All-pairs shortest paths with a cache-blocked, parallel Floyd-Warshall on a dense row-major int[] matrix,
+ * where d[i * n + j] is the distance from i to j and {@link #UNREACHABLE} marks missing paths.
+ * The matrix is split into tiles of blockSize x blockSize. For every block of intermediate nodes k:
+ * <ol>
+ * <li>the diagonal tile (k, k) is updated on its own,</li>
+ * <li>the tiles in row k and column k, which only depend on the diagonal tile, are updated in parallel,</li>
+ * <li>all remaining tiles, which only depend on their row and column tile, are updated in parallel.</li>
+ * </ol>
+ * A phase works on at most three tiles at once, so with the default of 64 x 64 ints (16 KB per tile)
+ * the working set stays in L2. O(n^3) time, O(n^2) memory; n is limited to 46340 so that n^2 fits an int index.
+ * Negative weights are allowed; a path length outside the int range throws an ArithmeticException.
+ */
+public final class FloydWarshall {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+    private static final int MAX_NODES = 46340;
+
+    private final int blockSize;
+    private final ForkJoinPool pool;
+
+    public FloydWarshall() {
+        this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public FloydWarshall(int blockSize, ForkJoinPool pool) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.pool = pool;
+    }
+
+    /**
+     * @param graph the graph, e.g. from AdjacencyListUndirectedWeightedGraph.freeze()
+     * @return the distance matrix indexed by the node ids of the graph
+     * @throws IllegalArgumentException if the graph has a negative cycle or too many nodes
+     * @throws ArithmeticException      if a path length exceeds the int range
+     */
+    public int[] compute(FrozenWeightedGraph<?> graph) {
+        int n = graph.nodeCount();
+        if (n > MAX_NODES) {
+            throw new IllegalArgumentException("too many nodes for a distance matrix: " + n);
+        }
+        int[] distances = new int[n * n];
+        Arrays.fill(distances, UNREACHABLE);
+        for (int u = 0; u < n; u++) {
+            distances[u * n + u] = 0;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int index = u * n + graph.targets[e];
+                distances[index] = Math.min(distances[index], graph.weights[e]);
+            }
+        }
+        run(distances, n);
+        for (int u = 0; u < n; u++) {
+            if (distances[u * n + u] < 0) {
+                throw new IllegalArgumentException("negative cycle through node " + graph.node(u));
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Runs the algorithm in place on a distance matrix with the direct edge weights, 0 on the diagonal
+     * and UNREACHABLE for missing edges. Afterwards a negative value on the diagonal marks a negative cycle.
+     * Paths too long for an int are skipped while shorter ones exist; if one is the only path, the matrix is
+     * checked once more in O(n^3) and an ArithmeticException is thrown.
+     *
+     * @param distances row-major n x n matrix
+     * @param n         number of nodes
+     */
+    public void run(int[] distances, int n) {
+        int blocks = (n + blockSize - 1) / blockSize;
+        AtomicBoolean overflow = new AtomicBoolean();
+        for (int k = 0; k < blocks; k++) {
+            int kb = k;
+            if (updateTile(distances, n, kb, kb, kb)) {
+                overflow.set(true);
+            }
+            // row and column tiles: 2 * (blocks - 1) tasks
+            pool.submit(() -> IntStream.range(0, 2 * blocks).parallel().forEach(t -> {
+                int other = t >> 1;
+                if (other != kb) {
+                    boolean tooLong = (t & 1) == 0
+                            ? updateTile(distances, n, kb, other, kb)
+                            : updateTile(distances, n, other, kb, kb);
+                    if (tooLong) {
+                        overflow.set(true);
+                    }
+                }
+            })).join();
+            pool.submit(() -> IntStream.range(0, blocks * blocks).parallel().forEach(t -> {
+                int ib = t / blocks;
+                int jb = t % blocks;
+                if (ib != kb && jb != kb && updateTile(distances, n, ib, jb, kb)) {
+                    overflow.set(true);
+                }
+            })).join();
+        }
+        if (overflow.get()) {
+            checkOverflow(distances, n);
+        }
+    }
+
+    // relaxes tile (ib, jb) over the intermediate nodes of block kb, in the order of the plain algorithm;
+    // true if a skipped path was too long for an int
+    private boolean updateTile(int[] d, int n, int ib, int jb, int kb) {
+        boolean overflow = false;
+        int iStart = ib * blockSize;
+        int iEnd = Math.min(n, iStart + blockSize);
+        int jStart = jb * blockSize;
+        int jEnd = Math.min(n, jStart + blockSize);
+        int kStart = kb * blockSize;
+        int kEnd = Math.min(n, kStart + blockSize);
+        for (int k = kStart; k < kEnd; k++) {
+            int rowK = k * n;
+            for (int i = iStart; i < iEnd; i++) {
+                int rowI = i * n;
+                int dik = d[rowI + k];
+                if (dik == UNREACHABLE) {
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    int dkj = d[rowK + j];
+                    if (dkj == UNREACHABLE) {
+                        continue;
+                    }
+                    long sum = (long) dik + dkj;
+                    if (sum < d[rowI + j]) {
+                        if (sum < Integer.MIN_VALUE) {
+                            throw new ArithmeticException("path length exceeds the int range");
+                        }
+                        d[rowI + j] = (int) sum;
+                    } else if (sum >= UNREACHABLE) {
+                        overflow = true;
+                    }
+                }
+            }
+        }
+        return overflow;
+    }
+
+    // a skipped path only matters if no shorter one was found, so some pair stays unreachable
+    // although a node in between reaches both ends
+    private void checkOverflow(int[] d, int n) {
+        boolean tooLong = pool.submit(() -> IntStream.range(0, n).parallel().anyMatch(i -> {
+            int rowI = i * n;
+            for (int k = 0; k < n; k++) {
+                if (d[rowI + k] == UNREACHABLE) {
+                    continue;
+                }
+                int rowK = k * n;
+                for (int j = 0; j < n; j++) {
+                    if (d[rowI + j] == UNREACHABLE && d[rowK + j] != UNREACHABLE) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        })).join();
+        if (tooLong) {
+            throw new ArithmeticException("path length exceeds the int range");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a directed graph in compressed-sparse-row layout.
+ * Every node is interned to a dense id in [0, nodeCount()); the successors of
+ * node i are stored in targets[offsets[i]] .. targets[offsets[i + 1] - 1].
+ * Traversals on this layout only touch int arrays, never the mutable map.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public final class FrozenGraph<T> {
+
+    final T[] nodes;
+    final Map<T, Integer> ids;
+    final int[] offsets;
+    final int[] targets;
+
+    FrozenGraph(T[] nodes, Map<T, Integer> ids, int[] offsets, int[] targets) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    public int edgeCount() {
+        return offsets[nodes.length];
+    }
+
+    /**
+     * @param id dense id of a node
+     * @return the element represented by the node with the given id
+     */
+    public T node(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * @param element the element to look up
+     * @return the dense id of the element; -1 if the element is not part of the graph.
+     */
+    public int id(T element) {
+        Integer id = ids.get(element);
+        return id == null ? -1 : id;
+    }
+
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @param id dense id of a node
+     * @return a copy of the successor ids of the node
+     */
+    public int[] successors(int id) {
+        return Arrays.copyOfRange(targets, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * Builds the symmetric closure of this graph. Every row of the result is sorted and free of duplicates.
+     *
+     * @return a new snapshot that contains u -> v and v -> u for every edge u -> v of this graph
+     */
+    public FrozenGraph<T> undirected() {
+        int n = nodes.length;
+        // counting degrees in both directions:
+        int[] counts = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                counts[u + 1]++;
+                counts[targets[e] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            counts[i + 1] += counts[i];
+        }
+        // filling both directions:
+        int[] fill = Arrays.copyOf(counts, n);
+        int[] both = new int[counts[n]];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                both[fill[u]++] = v;
+                both[fill[v]++] = u;
+            }
+        }
+        // sorting rows and dropping duplicates in place:
+        int[] newOffsets = new int[n + 1];
+        int write = 0;
+        for (int u = 0; u < n; u++) {
+            Arrays.sort(both, counts[u], counts[u + 1]);
+            newOffsets[u] = write;
+            for (int e = counts[u]; e < counts[u + 1]; e++) {
+                if (write == newOffsets[u] || both[write - 1] != both[e]) {
+                    both[write++] = both[e];
+                }
+            }
+        }
+        newOffsets[n] = write;
+        return new FrozenGraph<>(nodes, ids, newOffsets, Arrays.copyOf(both, write));
+    }
+
+    /**
+     * @return a new snapshot with every edge u -> v reversed to v -> u
+     */
+    public FrozenGraph<T> transpose() {
+        int n = nodes.length;
+        int[] newOffsets = new int[n + 1];
+        for (int e = 0; e < edgeCount(); e++) {
+            newOffsets[targets[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            newOffsets[i + 1] += newOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(newOffsets, n);
+        int[] newTargets = new int[edgeCount()];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                newTargets[fill[targets[e]]++] = u;
+            }
+        }
+        return new FrozenGraph<>(nodes, ids, newOffsets, newTargets);
+    }
+
+    /**
+     * Breadth-first search from a single source, following edge directions.
+     * The reverse graph is built first in O(V + E), so that levels with a large frontier can run bottom-up.
+     *
+     * @param source dense id of the start node
+     * @return number of edges on a shortest path from source to every node; -1 for unreachable nodes
+     */
+    public int[] bfs(int source) {
+        return new ParallelBFS(this, transpose()).distances(source);
+    }
+
+    /**
+     * Labels the connected components when all edges are treated as undirected.
+     *
+     * @return component id for every node id
+     */
+    public int[] connectedComponents() {
+        return ParallelBFS.undirected(undirected()).components();
+    }
+
+    /**
+     * Checks whether the graph is bipartite when all edges are treated as undirected.
+     *
+     * @return true, if the nodes can be colored with two colors so that no edge connects equal colors.
+     */
+    public boolean undirectedGraphIsBipartit() {
+        return ParallelBFS.undirected(undirected()).isBipartite();
+    }
+
+    /**
+     * @return the strongly connected components, each as a list of its elements,
+     * in reverse topological order of the condensation
+     */
+    public List<List<T>> stronglyConnectedComponents() {
+        int[] component = StronglyConnectedComponents.compute(this);
+        int count = StronglyConnectedComponents.count(component);
+        List<List<T>> components = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            components.add(new ArrayList<>());
+        }
+        for (int u = 0; u < nodes.length; u++) {
+            components.get(component[u]).add(nodes[u]);
+        }
+        return components;
+    }
+
+    /**
+     * @return the elements in an order where every edge leads from an earlier to a later element;
+     * null if the graph has a cycle.
+     */
+    public List<T> topologicalOrder() {
+        int[] order = TopologicalSort.order(this);
+        if (order == null) {
+            return null;
+        }
+        List<T> list = new ArrayList<>(order.length);
+        for (int u : order) {
+            list.add(nodes[u]);
+        }
+        return list;
+    }
+
+    /**
+     * O(V + E); every successor collection is preallocated with the degree of its node.
+     *
+     * @return a mutable adjacency list graph with the nodes and edges of this snapshot
+     */
+    public AdjacencyListGraph<T> toListGraph() {
+        return AdjacencyListGraph.fromFrozen(this);
+    }
+
+    /**
+     * O(n^2) for the allocation of the matrix plus O(E).
+     *
+     * @return a mutable adjacency matrix graph with the nodes and edges of this snapshot
+     */
+    public AdjacencyMatrixGraph<T> toMatrixGraph() {
+        return AdjacencyMatrixGraph.fromFrozen(this);
+    }
+
+    /**
+     * O(n^2 / 64) for the allocation of the bit rows plus O(E).
+     *
+     * @return a mutable bit matrix graph with the nodes and edges of this snapshot
+     */
+    public BitMatrixGraph<T> toBitMatrixGraph() {
+        return BitMatrixGraph.fromFrozen(this);
+    }
+
+    /**
+     * Interns the given elements to the ids 0 .. elements.length - 1.
+     */
+    static <T> Map<T, Integer> intern(T[] elements) {
+        Map<T, Integer> ids = new HashMap<>(Math.max(16, (int) (elements.length / 0.75f) + 1));
+        for (int i = 0; i < elements.length; i++) {
+            ids.put(elements[i], i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an undirected weighted graph in compressed-sparse-row layout.
+ * Every edge {u, v} is stored twice, once in the row of u and once in the row of v, with the same weight;
+ * a self-loop is stored twice in the row of its node. The neighbors of node i are
+ * targets[offsets[i]] .. targets[offsets[i + 1] - 1] with the weights at the same positions.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public final class FrozenWeightedGraph<T> {
+
+    final T[] nodes;
+    final Map<T, Integer> ids;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    FrozenWeightedGraph(T[] nodes, Map<T, Integer> ids, int[] offsets, int[] targets, int[] weights) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * @return number of row entries, i.e. twice the number of edges
+     */
+    public int entryCount() {
+        return offsets[nodes.length];
+    }
+
+    public T node(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * @return the dense id of the element; -1 if the element is not part of the graph.
+     */
+    public int id(T element) {
+        Integer id = ids.get(element);
+        return id == null ? -1 : id;
+    }
+
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @return a copy of the neighbor ids of the node
+     */
+    public int[] neighbors(int id) {
+        return Arrays.copyOfRange(targets, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * @return a copy of the weights of the edges to {@link #neighbors(int)}, in the same order
+     */
+    public int[] weights(int id) {
+        return Arrays.copyOfRange(weights, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * @return every edge once (from its smaller endpoint, a self-loop from the first of its two entries)
+     */
+    public EdgeList edges() {
+        int n = nodes.length;
+        int size = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (u <= targets[e]) {
+                    size++;
+                }
+            }
+        }
+        // self-loops were counted twice
+        int[] edgeU = new int[size];
+        int[] edgeV = new int[size];
+        int[] edgeW = new int[size];
+        int position = 0;
+        for (int u = 0; u < n; u++) {
+            boolean loopPending = false;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (u < v || (u == v && !loopPending)) {
+                    edgeU[position] = u;
+                    edgeV[position] = v;
+                    edgeW[position++] = weights[e];
+                }
+                if (u == v) {
+                    loopPending = !loopPending;
+                }
+            }
+        }
+        return new EdgeList(n, position, edgeU, edgeV, edgeW);
+    }
+
+    /**
+     * @return a mutable adjacency list graph with the nodes and edges of this snapshot
+     */
+    public AdjacencyListUndirectedWeightedGraph<T> toGraph() {
+        AdjacencyListUndirectedWeightedGraph<T> graph = new AdjacencyListUndirectedWeightedGraph<>();
+        for (T node : nodes) {
+            graph.addNodeElement(node);
+        }
+        for (int u = 0; u < nodes.length; u++) {
+            boolean loopPending = false;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                // every edge is added from its smaller endpoint, a self-loop from the first of its two entries
+                if (u < v) {
+                    graph.link(nodes[u], nodes[v], weights[e]);
+                } else if (u == v) {
+                    if (!loopPending) {
+                        graph.link(nodes[u], nodes[v], weights[e]);
+                    }
+                    loopPending = !loopPending;
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -40,6 +40,47 @@ public interface Graph<T> {
      */
     boolean removeEdge(T from, T to) throws InvalidNodeException;
 
+    /**
+     * @param element the element to look up
+     * @return true, if the element is represented by a node in the graph.
+     */
+    boolean containsNode(T element);
+
+    /**
+     * @param element the source element
+     * @return the destination elements of all edges starting at the given element
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    Iterable<T> successors(T element) throws InvalidNodeException;
+
+    /**
+     * Lazy breadth-first traversal; nodes are visited in order of their distance from start.
+     *
+     * @param start the element to start from
+     * @return the traversal, to be iterated or streamed
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    default Traversal<T> breadthFirst(T start) throws InvalidNodeException {
+        if (!containsNode(start)) {
+            throw new InvalidNodeException();
+        }
+        return new Traversal<>(this, start, Traversal.Order.BREADTH_FIRST);
+    }
+
+    /**
+     * Lazy depth-first traversal; nodes are visited in preorder.
+     *
+     * @param start the element to start from
+     * @return the traversal, to be iterated or streamed
+     * @throws InvalidNodeException if the element is not part of the graph
+     */
+    default Traversal<T> depthFirst(T start) throws InvalidNodeException {
+        if (!containsNode(start)) {
+            throw new InvalidNodeException();
+        }
+        return new Traversal<>(this, start, Traversal.Order.DEPTH_FIRST);
+    }
+
     final class InvalidEdgeException extends Exception {
 
         public InvalidEdgeException() {
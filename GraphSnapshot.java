@@ -0,0 +1,165 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary file format for graphs, laid out so that it can be memory-mapped without deserializing.
+ * All values are little-endian:
+ * <pre>
+ * int  magic, int version, int flags (bit 0: weighted), int nodeCount
+ * long entryCount, long dictionaryBytes
+ * int[nodeCount + 1]  offsets
+ * int[entryCount]     targets
+ * int[entryCount]     weights (only if weighted)
+ * padding to a multiple of 8
+ * long[nodeCount + 1] byte offsets of the node encodings in the dictionary
+ * byte[dictionaryBytes] node dictionary
+ * </pre>
+ * Directed graphs are stored with their successor rows, undirected weighted graphs with the symmetric
+ * rows of {@link FrozenWeightedGraph}.
+ */
+public final class GraphSnapshot {
+    static final int MAGIC = 0x47534E50;
+    static final int VERSION = 1;
+    static final int FLAG_WEIGHTED = 1;
+    static final int HEADER_BYTES = 32;
+
+    private GraphSnapshot() {
+    }
+
+    public static <T> void save(AdjacencyListGraph<T> graph, NodeCodec<T> codec, Path file) throws IOException {
+        save(graph.freeze(), codec, file);
+    }
+
+    public static <T> void save(AdjacencyMatrixGraph<T> graph, NodeCodec<T> codec, Path file) throws IOException {
+        save(graph.freeze(), codec, file);
+    }
+
+    public static <T> void save(AdjacencyListUndirectedWeightedGraph<T> graph, NodeCodec<T> codec, Path file)
+            throws IOException {
+        save(graph.freeze(), codec, file);
+    }
+
+    public static <T> void save(FrozenGraph<T> graph, NodeCodec<T> codec, Path file) throws IOException {
+        write(file, codec, graph.nodes, graph.offsets, graph.targets, null);
+    }
+
+    public static <T> void save(FrozenWeightedGraph<T> graph, NodeCodec<T> codec, Path file) throws IOException {
+        write(file, codec, graph.nodes, graph.offsets, graph.targets, graph.weights);
+    }
+
+    /**
+     * Maps a snapshot file read-only. Only the header is read; the arrays stay in the page cache.
+     *
+     * @param file  the snapshot file
+     * @param codec decodes the node dictionary on demand
+     * @return a read-only graph backed by the mapped file
+     * @throws IOException if the file cannot be read or is not a snapshot of a supported version
+     */
+    public static <T> MappedGraph<T> map(Path file, NodeCodec<T> codec) throws IOException {
+        return MappedGraph.open(file, codec);
+    }
+
+    private static <T> void write(Path file, NodeCodec<T> codec, T[] nodes, int[] offsets, int[] targets,
+                                  int[] weights) throws IOException {
+        int n = nodes.length;
+        long entries = offsets[n];
+        byte[][] encoded = new byte[n][];
+        long dictionaryBytes = 0;
+        for (int i = 0; i < n; i++) {
+            encoded[i] = codec.encode(nodes[i]);
+            dictionaryBytes += encoded[i].length;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(weights != null ? FLAG_WEIGHTED : 0);
+            out.putInt(n);
+            out.putLong(entries);
+            out.putLong(dictionaryBytes);
+            out.putInts(offsets, n + 1);
+            out.putInts(targets, (int) entries);
+            if (weights != null) {
+                out.putInts(weights, (int) entries);
+            }
+            if ((out.written & 7) != 0) {
+                out.putInt(0);
+            }
+            long position = 0;
+            for (int i = 0; i < n; i++) {
+                out.putLong(position);
+                position += encoded[i].length;
+            }
+            out.putLong(position);
+            for (byte[] bytes : encoded) {
+                out.putBytes(bytes);
+            }
+            out.flush();
+        }
+    }
+
+    // buffered little-endian writer on a file channel
+    static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        long written;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            written += 4;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            written += 8;
+        }
+
+        void putInts(int[] values, int length) throws IOException {
+            int position = 0;
+            while (position < length) {
+                ensure(4);
+                int count = Math.min(length - position, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, position, count);
+                buffer.position(buffer.position() + count * 4);
+                position += count;
+            }
+            written += 4L * length;
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int position = 0;
+            while (position < bytes.length) {
+                ensure(1);
+                int count = Math.min(bytes.length - position, buffer.remaining());
+                buffer.put(bytes, position, count);
+                position += count;
+            }
+            written += bytes.length;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap of the int ids 0 .. capacity - 1 with int keys, supporting decreaseKey.
+ * The heap is a d-ary tree in one int array; a second array maps every id to its position, so
+ * contains, key and decreaseKey find an id in O(1). A larger arity makes the tree flatter,
+ * which speeds up decreaseKey at the cost of pollMin comparing more children.
+ * insert and decreaseKey take O(log_d n), pollMin O(d log_d n).
+ */
+public final class IndexedDaryHeap {
+    private static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    // heap[i] is the id at position i
+    private final int[] heap;
+    // position[id] is the index of id in heap; -1 if id is not contained
+    private final int[] position;
+    private final int[] keys;
+    private int size;
+
+    /**
+     * @param capacity ids must be in [0, capacity)
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * @param capacity ids must be in [0, capacity)
+     * @param arity    number of children of every node in the heap, at least 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+        keys = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * @return the key of the contained id
+     */
+    public int key(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("id " + id + " is not in the heap");
+        }
+        return keys[id];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id is already contained
+     */
+    public void insert(int id, int key) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("id " + id + " is already in the heap");
+        }
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the new key is larger than the current key
+     */
+    public void decreaseKey(int id, int key) {
+        if (key > key(id)) {
+            throw new IllegalArgumentException("key " + key + " is larger than " + keys[id]);
+        }
+        keys[id] = key;
+        siftUp(position[id]);
+    }
+
+    /**
+     * Inserts the id or decreases its key, whatever applies; a larger key is ignored.
+     *
+     * @return true, if the id was inserted or its key decreased.
+     */
+    public boolean offer(int id, int key) {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        if (key < keys[id]) {
+            decreaseKey(id, key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the id with the smallest key
+     */
+    public int peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the removed id
+     */
+    public int pollMin() {
+        int min = peekMin();
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all ids, in O(size).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        int key = keys[id];
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[index] = parentId;
+            position[parentId] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        int key = keys[id];
+        while (true) {
+            int first = index * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int min = first;
+            for (int child = first + 1, end = Math.min(first + arity, size); child < end; child++) {
+                if (keys[heap[child]] < keys[heap[min]]) {
+                    min = child;
+                }
+            }
+            int minId = heap[min];
+            if (keys[minId] >= key) {
+                break;
+            }
+            heap[index] = minId;
+            position[minId] = index;
+            index = min;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+}
@@ -0,0 +1,37 @@
+import java.util.Arrays;
+
+/**
+ * Kruskal's minimum spanning forest on an {@link EdgeList}: the edges are ordered by weight once
+ * with {@link EdgeSort} and accepted if they connect two different trees of a {@link DisjointSet}. O(E alpha(V))
+ */
+public final class Kruskal {
+
+    private Kruskal() {
+    }
+
+    /**
+     * @param edges the edges, every undirected edge listed once
+     * @return the indices of the edges of a minimum spanning forest, in the order they were accepted
+     */
+    public static int[] spanningForest(EdgeList edges) {
+        return spanningForest(edges, EdgeSort.byWeight(edges));
+    }
+
+    /**
+     * @param edges the edges, every undirected edge listed once
+     * @param order the edge indices in ascending weight order, e.g. from {@link EdgeSort#byWeight(EdgeList)}
+     * @return the indices of the edges of a minimum spanning forest, in the order they were accepted
+     */
+    public static int[] spanningForest(EdgeList edges, int[] order) {
+        DisjointSet components = new DisjointSet(edges.nodeCount());
+        int[] forest = new int[Math.max(0, edges.nodeCount() - 1)];
+        int accepted = 0;
+        for (int k = 0; k < order.length && accepted < forest.length; k++) {
+            int edge = order[k];
+            if (components.union(edges.u[edge], edges.v[edge])) {
+                forest[accepted++] = edge;
+            }
+        }
+        return Arrays.copyOf(forest, accepted);
+    }
+}
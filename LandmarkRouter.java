@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Point-to-point distance queries on a static {@link FrozenWeightedGraph} with non-negative weights,
+ * using landmarks, A* and the triangle inequality (ALT).
+ * The distances from a few landmarks to every node are computed once; for every landmark l,
+ * |d(l, t) - d(l, v)| is a lower bound of d(v, t), which guides a bidirectional A* towards the other end.
+ * Both searches use the average potential (h_t - h_s) / 2 and its negation, so a query can stop as soon as
+ * the smallest keys of both queues add up to the best path found so far. Keys are doubled to stay integral.
+ * Every thread reuses its own search state, so a query allocates nothing; touched nodes are
+ * recognized by a query stamp instead of clearing arrays.
+ * The landmark table can be saved and loaded again for the same graph. Distances must fit into an int
+ * with room to double them; larger values throw an ArithmeticException.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public final class LandmarkRouter<T> {
+
+    public enum Selection {
+        // uniformly random nodes
+        RANDOM,
+        // every next landmark is the node farthest from all landmarks chosen so far, unreachable nodes first
+        FARTHEST,
+        // the nodes with the most edges
+        HIGHEST_DEGREE
+    }
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    static final int MAGIC = 0x4C4D524B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private final FrozenWeightedGraph<T> graph;
+    private final int[] landmarks;
+    // node-major: table[v * landmarks.length + l] is the distance between landmark l and node v
+    private final int[] table;
+    private final ThreadLocal<SearchState> states;
+
+    private LandmarkRouter(FrozenWeightedGraph<T> graph, int[] landmarks, int[] table) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.table = table;
+        this.states = ThreadLocal.withInitial(SearchState::new);
+    }
+
+    /**
+     * Selects the landmarks and computes their distances to all nodes, running one Dijkstra per landmark.
+     *
+     * @param count     number of landmarks, at most the number of nodes
+     * @param selection how to choose the landmarks
+     * @param seed      seed for the random choices
+     */
+    public static <T> LandmarkRouter<T> build(FrozenWeightedGraph<T> graph, int count, Selection selection,
+                                              long seed) {
+        int n = graph.nodeCount();
+        int k = Math.min(count, n);
+        if ((long) n * k > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("landmark table too large: " + n + " x " + k);
+        }
+        Random random = new Random(seed);
+        int[] chosen;
+        int[][] rows = new int[k][];
+        switch (selection) {
+            case RANDOM -> {
+                int[] permutation = IntStream.range(0, n).toArray();
+                for (int i = 0; i < k; i++) {
+                    int j = i + random.nextInt(n - i);
+                    int swap = permutation[i];
+                    permutation[i] = permutation[j];
+                    permutation[j] = swap;
+                }
+                chosen = Arrays.copyOf(permutation, k);
+            }
+            case HIGHEST_DEGREE -> chosen = IntStream.range(0, n).boxed()
+                    .sorted((a, b) -> Integer.compare(graph.degree(b), graph.degree(a)))
+                    .limit(k).mapToInt(Integer::intValue).toArray();
+            case FARTHEST -> {
+                chosen = new int[k];
+                // distance to the nearest landmark so far, UNREACHABLE counts as farthest
+                int[] nearest = n > 0 ? ShortestPaths.dijkstra(graph, random.nextInt(n)).distances().clone() : null;
+                for (int i = 0; i < k; i++) {
+                    int farthest = 0;
+                    for (int v = 1; v < n; v++) {
+                        if (nearest[v] > nearest[farthest]) {
+                            farthest = v;
+                        }
+                    }
+                    chosen[i] = farthest;
+                    rows[i] = ShortestPaths.dijkstra(graph, farthest).distances();
+                    for (int v = 0; v < n; v++) {
+                        nearest[v] = Math.min(nearest[v], rows[i][v]);
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException(String.valueOf(selection));
+        }
+        int[] landmarks = chosen;
+        IntStream.range(0, k).parallel().forEach(i -> {
+            if (rows[i] == null) {
+                rows[i] = ShortestPaths.dijkstra(graph, landmarks[i]).distances();
+            }
+        });
+        int[] table = new int[n * k];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (int l = 0; l < k; l++) {
+                table[v * k + l] = rows[l][v];
+            }
+        });
+        return new LandmarkRouter<>(graph, landmarks, table);
+    }
+
+    /**
+     * @return the landmark node ids, not a copy
+     */
+    public int[] landmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @return the length of a shortest path between the elements; UNREACHABLE if there is none
+     * @throws UndirectedWeightedGraph.InvalidNodeException if one of the elements is not part of the graph
+     */
+    public int distance(T source, T target) throws UndirectedWeightedGraph.InvalidNodeException {
+        int s = graph.id(source);
+        int t = graph.id(target);
+        if (s < 0 || t < 0) {
+            throw new UndirectedWeightedGraph.InvalidNodeException();
+        }
+        return distance(s, t);
+    }
+
+    /**
+     * Thread-safe; concurrent queries use separate search states.
+     *
+     * @return the length of a shortest path between the node ids; UNREACHABLE if there is none
+     */
+    public int distance(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        int k = landmarks.length;
+        for (int l = 0; l < k; l++) {
+            // a landmark reaching exactly one of both proves that they are in different components
+            if ((table[source * k + l] == UNREACHABLE) != (table[target * k + l] == UNREACHABLE)) {
+                return UNREACHABLE;
+            }
+        }
+        return states.get().search(source, target);
+    }
+
+    /**
+     * Saves the landmark table. Little-endian layout:
+     * int magic, int version, int nodeCount, int landmarkCount, long entryCount of the graph,
+     * int[landmarkCount] landmark ids, int[nodeCount * landmarkCount] node-major distances.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            GraphSnapshot.Output out = new GraphSnapshot.Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(graph.nodeCount());
+            out.putInt(landmarks.length);
+            out.putLong(graph.entryCount());
+            out.putInts(landmarks, landmarks.length);
+            out.putInts(table, table.length);
+            out.flush();
+        }
+    }
+
+    /**
+     * Loads a landmark table saved for this graph.
+     *
+     * @throws IOException if the file cannot be read, is no landmark table or was saved for a different graph
+     */
+    public static <T> LandmarkRouter<T> load(FrozenWeightedGraph<T> graph, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a landmark table");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported landmark table version " + header.getInt(4));
+            }
+            int n = header.getInt(8);
+            int k = header.getInt(12);
+            if (n != graph.nodeCount() || header.getLong(16) != graph.entryCount()) {
+                throw new IOException("landmark table was saved for a different graph");
+            }
+            long expected = HEADER_BYTES + 4L * k + 4L * n * k;
+            if (channel.size() != expected) {
+                throw new IOException("landmark table has " + channel.size() + " bytes, expected " + expected);
+            }
+            int[] landmarks = new int[k];
+            int[] table = new int[n * k];
+            readInts(channel, HEADER_BYTES, landmarks);
+            readInts(channel, HEADER_BYTES + 4L * k, table);
+            return new LandmarkRouter<>(graph, landmarks, table);
+        }
+    }
+
+    // maps the section in pieces below 2 GB and copies it into the array
+    private static void readInts(FileChannel channel, long position, int[] values) throws IOException {
+        int chunk = 1 << 28;
+        for (int i = 0; i < values.length; i += chunk) {
+            int count = Math.min(chunk, values.length - i);
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * i, 4L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(values, i, count);
+        }
+    }
+
+    // arrays of one thread, valid for a node only if its stamp equals the current query
+    private final class SearchState {
+        private final int[] forward;
+        private final int[] backward;
+        // h_t(v) - h_s(v)
+        private final int[] potential;
+        private final int[] touched;
+        private final int[] settledForward;
+        private final int[] settledBackward;
+        private final IndexedDaryHeap forwardHeap;
+        private final IndexedDaryHeap backwardHeap;
+        private int query;
+        private int source;
+        private int target;
+
+        SearchState() {
+            int n = graph.nodeCount();
+            forward = new int[n];
+            backward = new int[n];
+            potential = new int[n];
+            touched = new int[n];
+            settledForward = new int[n];
+            settledBackward = new int[n];
+            forwardHeap = new IndexedDaryHeap(n);
+            backwardHeap = new IndexedDaryHeap(n);
+        }
+
+        int search(int s, int t) {
+            if (++query == Integer.MAX_VALUE) {
+                Arrays.fill(touched, 0);
+                Arrays.fill(settledForward, 0);
+                Arrays.fill(settledBackward, 0);
+                query = 1;
+            }
+            source = s;
+            target = t;
+            touch(s);
+            touch(t);
+            forward[s] = 0;
+            backward[t] = 0;
+            forwardHeap.insert(s, potential[s]);
+            backwardHeap.insert(t, -potential[t]);
+            long best = Long.MAX_VALUE;
+            try {
+                while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+                    long minForward = forwardHeap.key(forwardHeap.peekMin());
+                    long minBackward = backwardHeap.key(backwardHeap.peekMin());
+                    if (best != Long.MAX_VALUE && minForward + minBackward >= 2 * best) {
+                        break;
+                    }
+                    if (minForward <= minBackward) {
+                        best = expand(forwardHeap, forward, backward, settledForward, 1, best);
+                    } else {
+                        best = expand(backwardHeap, backward, forward, settledBackward, -1, best);
+                    }
+                }
+            } finally {
+                forwardHeap.clear();
+                backwardHeap.clear();
+            }
+            return best == Long.MAX_VALUE ? UNREACHABLE : Math.toIntExact(best);
+        }
+
+        // settles the minimum of one direction; sign is 1 forward and -1 backward
+        private long expand(IndexedDaryHeap heap, int[] distance, int[] other, int[] settled, int sign, long best) {
+            int u = heap.pollMin();
+            settled[u] = query;
+            int du = distance[u];
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int v = graph.targets[e];
+                int weight = graph.weights[e];
+                if (weight < 0) {
+                    throw new IllegalArgumentException("negative edge weight: " + weight);
+                }
+                if (settled[v] == query) {
+                    continue;
+                }
+                touch(v);
+                long dv = (long) du + weight;
+                if (dv < distance[v]) {
+                    distance[v] = Math.toIntExact(dv);
+                    heap.offer(v, Math.toIntExact(2 * dv + sign * (long) potential[v]));
+                    if (other[v] != UNREACHABLE) {
+                        best = Math.min(best, dv + other[v]);
+                    }
+                }
+            }
+            return best;
+        }
+
+        // initializes the node for the current query
+        private void touch(int v) {
+            if (touched[v] == query) {
+                return;
+            }
+            touched[v] = query;
+            forward[v] = UNREACHABLE;
+            backward[v] = UNREACHABLE;
+            potential[v] = Math.toIntExact(bound(v, target) - bound(v, source));
+        }
+
+        // largest landmark lower bound of the distance between v and w
+        private long bound(int v, int w) {
+            int k = landmarks.length;
+            long best = 0;
+            for (int l = 0; l < k; l++) {
+                int dv = table[v * k + l];
+                int dw = table[w * k + l];
+                if (dv != UNREACHABLE && dw != UNREACHABLE) {
+                    best = Math.max(best, Math.abs((long) dv - dw));
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Read-only graph backed by a memory-mapped {@link GraphSnapshot} file.
+ * Opening only reads the header; rows are read straight from the mapping and node elements are
+ * decoded when they are asked for. Every section of the file is mapped on its own, so a single
+ * section must stay below 2 GB.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public final class MappedGraph<T> {
+    private final NodeCodec<T> codec;
+    private final int nodeCount;
+    private final int entryCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final LongBuffer dictionaryOffsets;
+    private final ByteBuffer dictionary;
+    // element -> id, built on the first call of id
+    private Map<T, Integer> ids;
+
+    private MappedGraph(NodeCodec<T> codec, int nodeCount, int entryCount, IntBuffer offsets, IntBuffer targets,
+                        IntBuffer weights, LongBuffer dictionaryOffsets, ByteBuffer dictionary) {
+        this.codec = codec;
+        this.nodeCount = nodeCount;
+        this.entryCount = entryCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.dictionaryOffsets = dictionaryOffsets;
+        this.dictionary = dictionary;
+    }
+
+    static <T> MappedGraph<T> open(Path file, NodeCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = map(channel, 0, GraphSnapshot.HEADER_BYTES);
+            if (header.getInt(0) != GraphSnapshot.MAGIC) {
+                throw new IOException(file + " is not a graph snapshot");
+            }
+            if (header.getInt(4) != GraphSnapshot.VERSION) {
+                throw new IOException("unsupported snapshot version " + header.getInt(4));
+            }
+            boolean weighted = (header.getInt(8) & GraphSnapshot.FLAG_WEIGHTED) != 0;
+            int n = header.getInt(12);
+            long entries = header.getLong(16);
+            long dictionaryBytes = header.getLong(24);
+            if (entries > Integer.MAX_VALUE) {
+                throw new IOException("too many entries: " + entries);
+            }
+            long position = GraphSnapshot.HEADER_BYTES;
+            IntBuffer offsets = map(channel, position, 4L * (n + 1)).asIntBuffer();
+            position += 4L * (n + 1);
+            IntBuffer targets = map(channel, position, 4L * entries).asIntBuffer();
+            position += 4L * entries;
+            IntBuffer weights = null;
+            if (weighted) {
+                weights = map(channel, position, 4L * entries).asIntBuffer();
+                position += 4L * entries;
+            }
+            position = (position + 7) & ~7L;
+            LongBuffer dictionaryOffsets = map(channel, position, 8L * (n + 1)).asLongBuffer();
+            position += 8L * (n + 1);
+            ByteBuffer dictionary = map(channel, position, dictionaryBytes);
+            if (position + dictionaryBytes != channel.size()) {
+                throw new IOException("snapshot has " + channel.size() + " bytes, expected "
+                        + (position + dictionaryBytes));
+            }
+            return new MappedGraph<>(codec, n, (int) entries, offsets, targets, weights, dictionaryOffsets,
+                    dictionary);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("section of " + size + " bytes is too large for one mapping");
+        }
+        if (position + size > channel.size()) {
+            throw new IOException("snapshot is truncated");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int entryCount() {
+        return entryCount;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * @return position of the first row entry of the node; the row ends at offset(id + 1)
+     */
+    public int offset(int id) {
+        return offsets.get(id);
+    }
+
+    public int degree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    public int target(int entry) {
+        return targets.get(entry);
+    }
+
+    public int weight(int entry) {
+        return weights == null ? 1 : weights.get(entry);
+    }
+
+    /**
+     * Decodes the element of one node from the dictionary.
+     */
+    public T node(int id) {
+        int start = (int) dictionaryOffsets.get(id);
+        int end = (int) dictionaryOffsets.get(id + 1);
+        return codec.decode(dictionary.slice(start, end - start));
+    }
+
+    /**
+     * The first call decodes the whole dictionary into a hash map.
+     *
+     * @return the dense id of the element; -1 if the element is not part of the graph.
+     */
+    public synchronized int id(T element) {
+        if (ids == null) {
+            ids = FrozenGraph.intern(decodeNodes());
+        }
+        Integer id = ids.get(element);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Copies the mapped rows into heap arrays.
+     *
+     * @return a frozen graph with the rows of this snapshot
+     */
+    public FrozenGraph<T> toFrozenGraph() {
+        T[] nodes = decodeNodes();
+        return new FrozenGraph<>(nodes, FrozenGraph.intern(nodes), copy(offsets), copy(targets));
+    }
+
+    /**
+     * Copies the mapped rows into heap arrays.
+     *
+     * @return a frozen weighted graph with the rows of this snapshot
+     * @throws IllegalStateException if the snapshot has no weights
+     */
+    public FrozenWeightedGraph<T> toFrozenWeightedGraph() {
+        if (weights == null) {
+            throw new IllegalStateException("snapshot is not weighted");
+        }
+        T[] nodes = decodeNodes();
+        return new FrozenWeightedGraph<>(nodes, FrozenGraph.intern(nodes), copy(offsets), copy(targets),
+                copy(weights));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] decodeNodes() {
+        T[] nodes = (T[]) new Object[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = node(i);
+        }
+        return nodes;
+    }
+
+    private static int[] copy(IntBuffer buffer) {
+        int[] array = new int[buffer.capacity()];
+        buffer.duplicate().get(array);
+        return array;
+    }
+}
@@ -0,0 +1,61 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts node elements to bytes and back for the node dictionary of a {@link GraphSnapshot}.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public interface NodeCodec<T> {
+
+    NodeCodec<Integer> INTEGER = new NodeCodec<>() {
+        @Override
+        public byte[] encode(Integer element) {
+            return ByteBuffer.allocate(4).putInt(element).array();
+        }
+
+        @Override
+        public Integer decode(ByteBuffer bytes) {
+            return bytes.duplicate().order(ByteOrder.BIG_ENDIAN).getInt();
+        }
+    };
+
+    NodeCodec<Character> CHARACTER = new NodeCodec<>() {
+        @Override
+        public byte[] encode(Character element) {
+            return ByteBuffer.allocate(2).putChar(element).array();
+        }
+
+        @Override
+        public Character decode(ByteBuffer bytes) {
+            return bytes.duplicate().order(ByteOrder.BIG_ENDIAN).getChar();
+        }
+    };
+
+    NodeCodec<String> STRING = new NodeCodec<>() {
+        @Override
+        public byte[] encode(String element) {
+            return element.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer bytes) {
+            byte[] array = new byte[bytes.remaining()];
+            bytes.duplicate().get(array);
+            return new String(array, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * @param element the element to encode
+     * @return the bytes representing the element
+     */
+    byte[] encode(T element);
+
+    /**
+     * @param bytes a buffer whose remaining bytes are exactly the encoding of one element; must not be modified
+     * @return the decoded element
+     */
+    T decode(ByteBuffer bytes);
+}
@@ -0,0 +1,74 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * PageRank on a {@link FrozenGraph} with {@link PowerIteration}.
+ * Every node pulls the rank of its predecessors from the transposed graph, so the update needs no atomics.
+ * The rank of dangling nodes (no outgoing edges) is spread evenly over all nodes.
+ */
+public final class PageRank {
+    private final double damping;
+    private final double tolerance;
+    private final int maxIterations;
+
+    public PageRank() {
+        this(0.85, 1e-9, 100);
+    }
+
+    /**
+     * @param damping       probability of following an edge instead of jumping to a random node
+     * @param tolerance     stop once the L1 distance of two rank vectors is below this value
+     * @param maxIterations stop after this many iterations even without convergence
+     */
+    public PageRank(double damping, double tolerance, int maxIterations) {
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @param graph the graph, e.g. from AdjacencyListGraph.freeze() or AdjacencyMatrixGraph.freeze()
+     * @return the rank of every node id (summing up to 1) with the metrics of all iterations
+     */
+    public PowerIteration.Result compute(FrozenGraph<?> graph) {
+        int n = graph.nodeCount();
+        if (n == 0) {
+            return new PowerIteration(tolerance, maxIterations, false).run(new double[0], (row, x) -> 0);
+        }
+        FrozenGraph<?> reverse = graph.transpose();
+        int[] inOffsets = reverse.offsets;
+        int[] inTargets = reverse.targets;
+        double[] contribution = new double[n];
+        double[] initial = new double[n];
+        Arrays.fill(initial, 1.0 / n);
+
+        PowerIteration.Step step = new PowerIteration.Step() {
+            // teleport plus redistributed dangling rank, the same for every node
+            private double base;
+
+            @Override
+            public void prepare(double[] rank) {
+                double dangling = IntStream.range(0, n).parallel().mapToDouble(u -> {
+                    int degree = graph.degree(u);
+                    if (degree == 0) {
+                        contribution[u] = 0;
+                        return rank[u];
+                    }
+                    contribution[u] = rank[u] / degree;
+                    return 0;
+                }).sum();
+                base = (1 - damping) / n + damping * dangling / n;
+            }
+
+            @Override
+            public double entry(int v, double[] rank) {
+                double sum = 0;
+                for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                    sum += contribution[inTargets[e]];
+                }
+                return base + damping * sum;
+            }
+        };
+        return new PowerIteration(tolerance, maxIterations, false).run(initial, step);
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous breadth-first search over a {@link FrozenGraph}.
+ * Each level is expanded in parallel, either top-down (frontier nodes claim their unvisited successors)
+ * or bottom-up (unvisited nodes look for a predecessor in the frontier bitset).
+ * The direction is chosen per level with the heuristic of Beamer et al.
+ * Bottom-up steps need the predecessors of every node, so they are only used when a reverse graph is known.
+ * A bottom-up step scans every unvisited node and its in-edges until one leads into the frontier, which includes
+ * the nodes of other components: O(n / 64 + in-edges of the unvisited nodes) per step. The heuristic therefore
+ * only chooses it while the frontier touches a large share of the edges that are still unexplored.
+ */
+public final class ParallelBFS {
+    // work items per parallel task
+    private static final int GRAIN = 1024;
+    // switch to bottom-up once the frontier touches more than 1/ALPHA of the unexplored edges
+    private static final int ALPHA = 14;
+    // switch back to top-down once the frontier holds less than 1/BETA of all nodes
+    private static final int BETA = 24;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final int n;
+
+    /**
+     * Engine for a directed graph. Only top-down steps are used; pass {@link FrozenGraph#transpose()}
+     * as reverse graph to enable bottom-up steps.
+     */
+    public ParallelBFS(FrozenGraph<?> graph) {
+        this(graph, null);
+    }
+
+    /**
+     * @param graph   the graph to traverse
+     * @param reverse the transposed graph (or graph itself if it is symmetric); null disables bottom-up steps
+     */
+    public ParallelBFS(FrozenGraph<?> graph, FrozenGraph<?> reverse) {
+        this.offsets = graph.offsets;
+        this.targets = graph.targets;
+        this.inOffsets = reverse == null ? null : reverse.offsets;
+        this.inTargets = reverse == null ? null : reverse.targets;
+        this.n = graph.nodeCount();
+    }
+
+    /**
+     * Engine for a graph whose edges are all symmetric, e.g. the result of {@link FrozenGraph#undirected()}.
+     */
+    public static ParallelBFS undirected(FrozenGraph<?> symmetric) {
+        return new ParallelBFS(symmetric, symmetric);
+    }
+
+    /**
+     * @param source dense id of the start node
+     * @return number of edges on a shortest path from source to every node; -1 for unreachable nodes
+     */
+    public int[] distances(int source) {
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        search(source, level, null, 0, new AtomicLongArray(words(n)), targets.length);
+        return level;
+    }
+
+    /**
+     * Labels the connected components. Only meaningful for symmetric graphs.
+     *
+     * @return component id for every node; ids are dense and start at 0
+     */
+    public int[] components() {
+        int[] level = new int[n];
+        int[] component = new int[n];
+        Arrays.fill(level, -1);
+        AtomicLongArray visited = new AtomicLongArray(words(n));
+        int next = 0;
+        // the edges of earlier components are explored already
+        long unexploredEdges = targets.length;
+        for (int start = 0; start < n; start++) {
+            if (level[start] == -1) {
+                unexploredEdges = search(start, level, component, next++, visited, unexploredEdges);
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Checks whether the graph can be colored with two colors. Only meaningful for symmetric graphs.
+     * BFS levels of all components give a valid coloring exactly when no edge joins two nodes of equal level parity.
+     */
+    public boolean isBipartite() {
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        AtomicLongArray visited = new AtomicLongArray(words(n));
+        long unexploredEdges = targets.length;
+        for (int start = 0; start < n; start++) {
+            if (level[start] == -1) {
+                unexploredEdges = search(start, level, null, 0, visited, unexploredEdges);
+            }
+        }
+        return IntStream.range(0, n).parallel().allMatch(u -> {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (((level[u] ^ level[targets[e]]) & 1) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    // unexploredEdges: out-edges of all nodes not visited yet; returns the count after the search
+    private long search(int source, int[] level, int[] component, int label, AtomicLongArray visited,
+                        long unexploredEdges) {
+        level[source] = 0;
+        if (component != null) {
+            component[source] = label;
+        }
+        visited.set(source >>> 6, visited.get(source >>> 6) | (1L << source));
+
+        int[] frontier = {source};
+        int frontierSize = 1;
+        long[] frontierBits = null;
+        long frontierEdges = offsets[source + 1] - offsets[source];
+        unexploredEdges -= frontierEdges;
+        int depth = 0;
+
+        while (frontierSize > 0) {
+            boolean bottomUp = inOffsets != null
+                    && (frontierBits != null ? frontierSize >= n / BETA : frontierEdges > unexploredEdges / ALPHA);
+            if (bottomUp) {
+                if (frontierBits == null) {
+                    frontierBits = toBits(frontier, frontierSize);
+                }
+                frontierBits = bottomUpStep(frontierBits, level, component, label, depth + 1, visited);
+                frontierSize = popcount(frontierBits);
+                frontier = null;
+            } else {
+                if (frontier == null) {
+                    frontier = toList(frontierBits, frontierSize);
+                    frontierBits = null;
+                }
+                frontier = topDownStep(frontier, frontierSize, level, component, label, depth + 1, visited);
+                frontierSize = frontier.length;
+            }
+            frontierEdges = frontier != null ? degreeSum(frontier) : degreeSum(frontierBits);
+            unexploredEdges -= frontierEdges;
+            depth++;
+        }
+        return unexploredEdges;
+    }
+
+    private int[] topDownStep(int[] frontier, int size, int[] level, int[] component, int label, int depth,
+                              AtomicLongArray visited) {
+        int chunks = (size + GRAIN - 1) / GRAIN;
+        int[][] found = new int[chunks][];
+        range(chunks).forEach(c -> {
+            int[] local = new int[16];
+            int count = 0;
+            for (int i = c * GRAIN, end = Math.min(size, i + GRAIN); i < end; i++) {
+                int u = frontier[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (claim(visited, v)) {
+                        level[v] = depth;
+                        if (component != null) {
+                            component[v] = label;
+                        }
+                        if (count == local.length) {
+                            local = Arrays.copyOf(local, count * 2);
+                        }
+                        local[count++] = v;
+                    }
+                }
+            }
+            found[c] = Arrays.copyOf(local, count);
+        });
+        int total = 0;
+        for (int[] part : found) {
+            total += part.length;
+        }
+        int[] next = new int[total];
+        int position = 0;
+        for (int[] part : found) {
+            System.arraycopy(part, 0, next, position, part.length);
+            position += part.length;
+        }
+        return next;
+    }
+
+    private long[] bottomUpStep(long[] frontierBits, int[] level, int[] component, int label, int depth,
+                                AtomicLongArray visited) {
+        long[] next = new long[frontierBits.length];
+        // every task owns a range of words, so visited and next need no atomic updates here
+        int wordsPerTask = Math.max(1, GRAIN / 64);
+        int tasks = (frontierBits.length + wordsPerTask - 1) / wordsPerTask;
+        range(tasks).forEach(t -> {
+            for (int w = t * wordsPerTask, end = Math.min(frontierBits.length, w + wordsPerTask); w < end; w++) {
+                long unvisited = ~visited.get(w);
+                long claimed = 0;
+                while (unvisited != 0) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    if (v >= n) {
+                        break;
+                    }
+                    for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                        int u = inTargets[e];
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                            level[v] = depth;
+                            if (component != null) {
+                                component[v] = label;
+                            }
+                            claimed |= 1L << v;
+                            break;
+                        }
+                    }
+                }
+                if (claimed != 0) {
+                    visited.set(w, visited.get(w) | claimed);
+                    next[w] = claimed;
+                }
+            }
+        });
+        return next;
+    }
+
+    private static boolean claim(AtomicLongArray visited, int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        long old = visited.get(w);
+        while ((old & bit) == 0) {
+            if (visited.compareAndSet(w, old, old | bit)) {
+                return true;
+            }
+            old = visited.get(w);
+        }
+        return false;
+    }
+
+    private long[] toBits(int[] list, int size) {
+        long[] bits = new long[words(n)];
+        for (int i = 0; i < size; i++) {
+            bits[list[i] >>> 6] |= 1L << list[i];
+        }
+        return bits;
+    }
+
+    private static int[] toList(long[] bits, int size) {
+        int[] list = new int[size];
+        int position = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                list[position++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
+
+    private long degreeSum(int[] list) {
+        long sum = 0;
+        for (int u : list) {
+            sum += offsets[u + 1] - offsets[u];
+        }
+        return sum;
+    }
+
+    private long degreeSum(long[] bits) {
+        long sum = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                sum += offsets[u + 1] - offsets[u];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    private static int popcount(long[] bits) {
+        int sum = 0;
+        for (long word : bits) {
+            sum += Long.bitCount(word);
+        }
+        return sum;
+    }
+
+    private static IntStream range(int tasks) {
+        IntStream stream = IntStream.range(0, tasks);
+        return tasks > 1 ? stream.parallel() : stream;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
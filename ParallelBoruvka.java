@@ -0,0 +1,89 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Boruvka's minimum spanning forest on an {@link EdgeList}, parallelized on a ForkJoinPool.
+ * Every round finds the lightest edge leaving each component in parallel, contracts all of them with a
+ * {@link ConcurrentDisjointSet} and drops the edges inside components; at most log2(n) rounds are needed.
+ * Ties are broken by the edge index, so the chosen edges never form a cycle.
+ */
+public final class ParallelBoruvka {
+    // edges or nodes per ForkJoin leaf task
+    private static final int GRAIN = 4096;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBoruvka() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBoruvka(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param edges the edges, every undirected edge listed once
+     * @return the indices of the edges of a minimum spanning forest in ascending order
+     */
+    public int[] spanningForest(EdgeList edges) {
+        int n = edges.nodeCount();
+        ConcurrentDisjointSet components = new ConcurrentDisjointSet(n);
+        // per component root: weight in the high half, edge index in the low half, the minimum wins
+        AtomicLongArray cheapest = new AtomicLongArray(n);
+        boolean[] accepted = new boolean[edges.size()];
+        // endpoints of the alive edges, replaced by their roots after every round to keep the finds short
+        int[] endU = edges.u.clone();
+        int[] endV = edges.v.clone();
+        int[] alive = pool.submit(() -> IntStream.range(0, edges.size()).parallel()
+                .filter(e -> edges.u[e] != edges.v[e]).toArray()).join();
+        while (alive.length > 0) {
+            int[] current = alive;
+            pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    cheapest.set(i, NONE);
+                }
+            }));
+            pool.invoke(new RangeTask(0, current.length, GRAIN, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int e = current[i];
+                    int rootU = components.find(endU[e]);
+                    int rootV = components.find(endV[e]);
+                    if (rootU != rootV) {
+                        long key = ((long) edges.weight(e) << 32) | e;
+                        offer(cheapest, rootU, key);
+                        offer(cheapest, rootV, key);
+                    }
+                }
+            }));
+            // the roots did not change since the search, so every component still has its candidate
+            pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+                for (int root = from; root < to; root++) {
+                    long key = cheapest.get(root);
+                    if (key != NONE) {
+                        int e = (int) key;
+                        // both endpoints may have chosen the same edge, only the first union succeeds
+                        if (components.union(edges.u[e], edges.v[e])) {
+                            accepted[e] = true;
+                        }
+                    }
+                }
+            }));
+            alive = pool.submit(() -> Arrays.stream(current).parallel().filter(e -> {
+                endU[e] = components.find(endU[e]);
+                endV[e] = components.find(endV[e]);
+                return endU[e] != endV[e];
+            }).toArray()).join();
+        }
+        return IntStream.range(0, accepted.length).filter(e -> accepted[e]).toArray();
+    }
+
+    private static void offer(AtomicLongArray cheapest, int root, long key) {
+        long current = cheapest.get(root);
+        while (key < current && !cheapest.compareAndSet(root, current, key)) {
+            current = cheapest.get(root);
+        }
+    }
+}
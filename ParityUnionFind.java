@@ -0,0 +1,111 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Union-find that additionally stores for every element the parity of its color relative to its parent.
+ * Each union records "a and b have different colors"; the structure notices the first odd cycle,
+ * so the bipartite state of an undirected graph is known after every inserted edge.
+ * Uses path compression and union by rank, so one union costs amortized almost constant time.
+ *
+ * @param <T> the type of the elements
+ */
+class ParityUnionFind<T> {
+    private final Map<T, Integer> ids;
+    private int[] parent;
+    private int[] rank;
+    // parity[x] == 1 if x has the other color than parent[x]
+    private byte[] parity;
+    private int size;
+    private boolean bipartite;
+    // parity of the last element passed to find relative to its root
+    private int lastParity;
+
+    ParityUnionFind() {
+        this(16);
+    }
+
+    ParityUnionFind(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new HashMap<>();
+        parent = new int[capacity];
+        rank = new int[capacity];
+        parity = new byte[capacity];
+        size = 0;
+        bipartite = true;
+    }
+
+    boolean isBipartite() {
+        return bipartite;
+    }
+
+    /**
+     * Records an undirected edge between a and b.
+     *
+     * @return true, if the graph is still bipartite after adding the edge.
+     */
+    boolean union(T a, T b) {
+        if (!bipartite) {
+            // nothing can make the graph bipartite again except a removal, which rebuilds this structure
+            return false;
+        }
+        int rootA = find(id(a));
+        int parityA = lastParity;
+        int rootB = find(id(b));
+        int parityB = lastParity;
+        if (rootA == rootB) {
+            if (parityA == parityB) {
+                bipartite = false;
+            }
+            return bipartite;
+        }
+        if (rank[rootA] < rank[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        parity[rootB] = (byte) (parityA ^ parityB ^ 1);
+        if (rank[rootA] == rank[rootB]) {
+            rank[rootA]++;
+        }
+        return true;
+    }
+
+    private int id(T element) {
+        Integer id = ids.get(element);
+        if (id != null) {
+            return id;
+        }
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, size * 2);
+            rank = Arrays.copyOf(rank, size * 2);
+            parity = Arrays.copyOf(parity, size * 2);
+        }
+        parent[size] = size;
+        ids.put(element, size);
+        return size++;
+    }
+
+    private int find(int x) {
+        int root = x;
+        int toRoot = 0;
+        while (parent[root] != root) {
+            toRoot ^= parity[root];
+            root = parent[root];
+        }
+        // path compression, keeping the parity of every node relative to the root:
+        int current = x;
+        int currentParity = toRoot;
+        while (current != root && parent[current] != root) {
+            int next = parent[current];
+            int nextParity = currentParity ^ parity[current];
+            parent[current] = root;
+            parity[current] = (byte) currentParity;
+            current = next;
+            currentParity = nextParity;
+        }
+        lastParity = toRoot;
+        return root;
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Generic power iteration x(k+1) = f(x(k)) on primitive double[] vectors.
+ * Every iteration computes all entries of the next vector in parallel, pulling from the current one,
+ * and stops as soon as the L1 distance between two iterations drops below the tolerance.
+ * The time and the residual of every iteration are recorded in the {@link Result}.
+ */
+public final class PowerIteration {
+
+    /**
+     * One iteration of the method.
+     */
+    public interface Step {
+
+        /**
+         * Called once before the entries of an iteration are computed, e.g. to aggregate global values.
+         *
+         * @param current the vector of the previous iteration
+         */
+        default void prepare(double[] current) {
+        }
+
+        /**
+         * Must only read current and state prepared before; is called concurrently for different rows.
+         *
+         * @param row     index of the entry to compute
+         * @param current the vector of the previous iteration
+         * @return the entry of the next vector
+         */
+        double entry(int row, double[] current);
+    }
+
+    public static final class Result {
+        private final double[] vector;
+        private final int iterations;
+        private final boolean converged;
+        private final long[] iterationNanos;
+        private final double[] residuals;
+
+        Result(double[] vector, int iterations, boolean converged, long[] iterationNanos, double[] residuals) {
+            this.vector = vector;
+            this.iterations = iterations;
+            this.converged = converged;
+            this.iterationNanos = iterationNanos;
+            this.residuals = residuals;
+        }
+
+        public double[] getVector() {
+            return vector;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public boolean isConverged() {
+            return converged;
+        }
+
+        /**
+         * @return wall clock time of every iteration in nanoseconds
+         */
+        public long[] getIterationNanos() {
+            return iterationNanos;
+        }
+
+        /**
+         * @return L1 distance between the vectors before and after every iteration
+         */
+        public double[] getResiduals() {
+            return residuals;
+        }
+    }
+
+    // rows per parallel task
+    private static final int GRAIN = 4096;
+
+    private final double tolerance;
+    private final int maxIterations;
+    private final boolean normalize;
+
+    /**
+     * @param tolerance     stop once the L1 distance of two consecutive vectors is below this value
+     * @param maxIterations stop after this many iterations even without convergence
+     * @param normalize     scale every new vector to L1 norm 1, as needed for plain matrix powers
+     * @throws IllegalArgumentException if tolerance is not positive or maxIterations is negative
+     */
+    public PowerIteration(double tolerance, int maxIterations, boolean normalize) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("tolerance must be positive: " + tolerance);
+        }
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations must not be negative: " + maxIterations);
+        }
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        this.normalize = normalize;
+    }
+
+    /**
+     * @param initial start vector, not modified
+     * @param step    computes the next vector
+     * @return the last vector with the metrics of all iterations
+     */
+    public Result run(double[] initial, Step step) {
+        int n = initial.length;
+        double[] current = initial.clone();
+        double[] next = new double[n];
+        long[] nanos = new long[maxIterations];
+        double[] residuals = new double[maxIterations];
+        int chunks = (n + GRAIN - 1) / GRAIN;
+        int iteration = 0;
+        boolean converged = false;
+        while (iteration < maxIterations && !converged) {
+            long start = System.nanoTime();
+            step.prepare(current);
+            double[] from = current;
+            double[] to = next;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                for (int i = c * GRAIN, end = Math.min(n, i + GRAIN); i < end; i++) {
+                    to[i] = step.entry(i, from);
+                }
+            });
+            if (normalize) {
+                double norm = IntStream.range(0, chunks).parallel()
+                        .mapToDouble(c -> sumAbs(to, c * GRAIN, Math.min(n, c * GRAIN + GRAIN))).sum();
+                if (norm > 0) {
+                    IntStream.range(0, chunks).parallel().forEach(c -> {
+                        for (int i = c * GRAIN, end = Math.min(n, i + GRAIN); i < end; i++) {
+                            to[i] /= norm;
+                        }
+                    });
+                }
+            }
+            double residual = IntStream.range(0, chunks).parallel().mapToDouble(c -> {
+                double sum = 0;
+                for (int i = c * GRAIN, end = Math.min(n, i + GRAIN); i < end; i++) {
+                    sum += Math.abs(to[i] - from[i]);
+                }
+                return sum;
+            }).sum();
+            current = to;
+            next = from;
+            nanos[iteration] = System.nanoTime() - start;
+            residuals[iteration] = residual;
+            iteration++;
+            converged = residual < tolerance;
+        }
+        return new Result(current, iteration, converged, Arrays.copyOf(nanos, iteration),
+                Arrays.copyOf(residuals, iteration));
+    }
+
+    /**
+     * Power method for the dominant eigenvector of a sparse matrix in CSR layout:
+     * row i holds the values[k] at the columns[k] for k in offsets[i] .. offsets[i + 1] - 1.
+     *
+     * @return the result with an L1-normalized vector
+     */
+    public static Result dominantEigenvector(int[] offsets, int[] columns, double[] values,
+                                             double tolerance, int maxIterations) {
+        int n = offsets.length - 1;
+        double[] initial = new double[n];
+        Arrays.fill(initial, 1.0 / n);
+        return new PowerIteration(tolerance, maxIterations, true).run(initial, (row, x) -> {
+            double sum = 0;
+            for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+                sum += values[k] * x[columns[k]];
+            }
+            return sum;
+        });
+    }
+
+    private static double sumAbs(double[] vector, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += Math.abs(vector[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Prim's minimum spanning forest on a {@link FrozenWeightedGraph}: every tree grows from its lightest
+ * connecting edge, the candidates are kept in an {@link IndexedDaryHeap} with one entry per node,
+ * so an improved edge is a decreaseKey instead of a stale duplicate. O(E log_d V)
+ */
+public final class Prim {
+
+    private Prim() {
+    }
+
+    /**
+     * @param graph the graph
+     * @return the edges of a minimum spanning forest as (parent, child, weight), in the order the children were reached
+     */
+    public static EdgeList spanningForest(FrozenWeightedGraph<?> graph) {
+        int n = graph.nodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        int[] parent = new int[n];
+        boolean[] done = new boolean[n];
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        int[] edgeU = new int[Math.max(0, n - 1)];
+        int[] edgeV = new int[edgeU.length];
+        int[] edgeW = new int[edgeU.length];
+        int size = 0;
+        for (int start = 0; start < n; start++) {
+            if (done[start]) {
+                continue;
+            }
+            parent[start] = -1;
+            heap.insert(start, 0);
+            while (!heap.isEmpty()) {
+                int weight = heap.key(heap.peekMin());
+                int u = heap.pollMin();
+                done[u] = true;
+                if (parent[u] >= 0) {
+                    edgeU[size] = parent[u];
+                    edgeV[size] = u;
+                    edgeW[size++] = weight;
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (!done[v] && heap.offer(v, weights[e])) {
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return new EdgeList(n, size, edgeU, edgeV, edgeW);
+    }
+}
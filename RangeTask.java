@@ -0,0 +1,35 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a body over the index range [from, to) on a ForkJoinPool, splitting it in halves
+ * until at most grain indices are left per task.
+ */
+@SuppressWarnings("serial")
+final class RangeTask extends RecursiveAction {
+
+    interface Body {
+        void run(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final Body body;
+
+    RangeTask(int from, int to, int grain, Body body) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            body.run(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, grain, body), new RangeTask(middle, to, grain, body));
+    }
+}
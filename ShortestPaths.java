@@ -0,0 +1,305 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest paths from one source in a {@link FrozenWeightedGraph} with non-negative weights.
+ * The result consists of two int arrays indexed by node id: the distance from the source and
+ * the predecessor on a shortest path, which together form a shortest-path tree.
+ * <ul>
+ * <li>{@link #dijkstra} settles the nodes one by one in an {@link IndexedDaryHeap}, for low latency on one thread,
+ * and can stop as soon as a target is settled.</li>
+ * <li>{@link #deltaStepping} settles all nodes of a distance range [i * delta, (i + 1) * delta) together and
+ * relaxes their edges in parallel, which scales with cores on large graphs.</li>
+ * </ul>
+ * A negative weight throws an IllegalArgumentException, a distance beyond Integer.MAX_VALUE - 1 an ArithmeticException.
+ */
+public final class ShortestPaths {
+
+    /**
+     * Distance of nodes that cannot be reached from the source.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    // nodes per parallel task
+    private static final int GRAIN = 1024;
+
+    private final int source;
+    private final int[] distances;
+    private final int[] predecessors;
+
+    private ShortestPaths(int source, int[] distances, int[] predecessors) {
+        this.source = source;
+        this.distances = distances;
+        this.predecessors = predecessors;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @return the length of a shortest path from the source; UNREACHABLE if there is none
+     */
+    public int distance(int id) {
+        return distances[id];
+    }
+
+    /**
+     * @return the node before id on a shortest path from the source; -1 for the source and unreachable nodes
+     */
+    public int predecessor(int id) {
+        return predecessors[id];
+    }
+
+    /**
+     * @return the distances of all node ids, not a copy
+     */
+    public int[] distances() {
+        return distances;
+    }
+
+    /**
+     * @return the predecessors of all node ids, not a copy
+     */
+    public int[] predecessors() {
+        return predecessors;
+    }
+
+    /**
+     * @return the node ids of a shortest path from the source to the target; null if the target is unreachable
+     */
+    public int[] path(int target) {
+        if (distances[target] == UNREACHABLE) {
+            return null;
+        }
+        int length = 1;
+        for (int v = target; v != source; v = predecessors[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = target, i = length - 1; i >= 0; v = predecessors[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Dijkstra's algorithm. O(E log V)
+     */
+    public static ShortestPaths dijkstra(FrozenWeightedGraph<?> graph, int source) {
+        return dijkstra(graph, source, -1);
+    }
+
+    /**
+     * Dijkstra's algorithm, stopping once the target is settled. Only the distance and the path of the target and
+     * of nodes closer than the target are final then; the others are upper bounds or UNREACHABLE.
+     *
+     * @param target the node to stop at; -1 to compute all distances
+     */
+    public static ShortestPaths dijkstra(FrozenWeightedGraph<?> graph, int source, int target) {
+        int n = graph.nodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        int[] distances = new int[n];
+        int[] predecessors = new int[n];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(predecessors, -1);
+        boolean[] settled = new boolean[n];
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        distances[source] = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            settled[u] = true;
+            if (u == target) {
+                break;
+            }
+            int du = distances[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (settled[v]) {
+                    checkWeight(weights[e]);
+                    continue;
+                }
+                int dv = add(du, weights[e]);
+                if (heap.offer(v, dv)) {
+                    distances[v] = dv;
+                    predecessors[v] = u;
+                }
+            }
+        }
+        return new ShortestPaths(source, distances, predecessors);
+    }
+
+    /**
+     * Parallel delta-stepping on the common pool, with delta = max weight / average degree.
+     */
+    public static ShortestPaths deltaStepping(FrozenWeightedGraph<?> graph, int source) {
+        int maxWeight = 1;
+        for (int e = 0; e < graph.entryCount(); e++) {
+            maxWeight = Math.max(maxWeight, graph.weights[e]);
+        }
+        int averageDegree = Math.max(1, graph.entryCount() / Math.max(1, graph.nodeCount()));
+        return deltaStepping(graph, source, Math.max(1, maxWeight / averageDegree), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel delta-stepping. Every bucket holds the nodes with a tentative distance in [i * delta, (i + 1) * delta).
+     * The smallest bucket is emptied by relaxing the light edges (weight <= delta) of its nodes in parallel until no
+     * node falls back into it; then the heavy edges of all its nodes are relaxed once.
+     * Distance and predecessor of a node are packed into one long and updated by CAS only on a strictly
+     * shorter distance, so the predecessors always form a tree.
+     *
+     * @param delta width of a bucket: 1 behaves like Dijkstra, large values like Bellman-Ford
+     */
+    public static ShortestPaths deltaStepping(FrozenWeightedGraph<?> graph, int source, int delta, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("delta must be positive: " + delta);
+        }
+        int n = graph.nodeCount();
+        AtomicLongArray state = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            state.set(v, pack(UNREACHABLE, -1));
+        }
+        state.set(source, pack(0, -1));
+        TreeMap<Integer, IntBuffer> buckets = new TreeMap<>();
+        IntBuffer first = new IntBuffer();
+        first.add(source);
+        buckets.put(0, first);
+        // stamps to take every node at most once into a frontier and into the settled list of a bucket
+        int[] frontierStamp = new int[n];
+        int[] bucketStamp = new int[n];
+        int stamp = 0;
+        while (!buckets.isEmpty()) {
+            Map.Entry<Integer, IntBuffer> entry = buckets.pollFirstEntry();
+            int bucket = entry.getKey();
+            IntBuffer settled = new IntBuffer();
+            IntBuffer candidates = entry.getValue();
+            while (candidates.size > 0) {
+                stamp++;
+                IntBuffer frontier = new IntBuffer();
+                for (int i = 0; i < candidates.size; i++) {
+                    int v = candidates.data[i];
+                    // entries of nodes that moved to a smaller bucket since are stale
+                    if (distance(state, v) / delta == bucket && frontierStamp[v] != stamp) {
+                        frontierStamp[v] = stamp;
+                        frontier.add(v);
+                        if (bucketStamp[v] != bucket + 1) {
+                            bucketStamp[v] = bucket + 1;
+                            settled.add(v);
+                        }
+                    }
+                }
+                int[][] updates = relax(graph, state, frontier, delta, true, pool);
+                candidates = distribute(state, updates, delta, bucket, buckets);
+            }
+            int[][] updates = relax(graph, state, settled, delta, false, pool);
+            distribute(state, updates, delta, bucket, buckets);
+        }
+        int[] distances = new int[n];
+        int[] predecessors = new int[n];
+        for (int v = 0; v < n; v++) {
+            long packed = state.get(v);
+            distances[v] = (int) (packed >>> 32);
+            predecessors[v] = (int) packed;
+        }
+        return new ShortestPaths(source, distances, predecessors);
+    }
+
+    // relaxes the light or the heavy edges of the nodes in parallel, returns the nodes whose distance decreased
+    private static int[][] relax(FrozenWeightedGraph<?> graph, AtomicLongArray state, IntBuffer nodes, int delta,
+                                 boolean light, ForkJoinPool pool) {
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        int chunks = (nodes.size + GRAIN - 1) / GRAIN;
+        return pool.submit(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            IntBuffer updated = new IntBuffer();
+            for (int i = c * GRAIN, end = Math.min(nodes.size, i + GRAIN); i < end; i++) {
+                int u = nodes.data[i];
+                int du = distance(state, u);
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int weight = weights[e];
+                    checkWeight(weight);
+                    if ((weight <= delta) == light && decrease(state, targets[e], add(du, weight), u)) {
+                        updated.add(targets[e]);
+                    }
+                }
+            }
+            return updated.toArray();
+        }).toArray(int[][]::new)).join();
+    }
+
+    // sorts the updated nodes into their buckets, returns those that fell into the current bucket
+    private static IntBuffer distribute(AtomicLongArray state, int[][] updates, int delta, int bucket,
+                                        TreeMap<Integer, IntBuffer> buckets) {
+        IntBuffer current = new IntBuffer();
+        for (int[] chunk : updates) {
+            for (int v : chunk) {
+                int target = distance(state, v) / delta;
+                if (target == bucket) {
+                    current.add(v);
+                } else {
+                    buckets.computeIfAbsent(target, k -> new IntBuffer()).add(v);
+                }
+            }
+        }
+        return current;
+    }
+
+    private static boolean decrease(AtomicLongArray state, int v, int distance, int predecessor) {
+        long packed = pack(distance, predecessor);
+        long current = state.get(v);
+        while (distance < (int) (current >>> 32)) {
+            if (state.compareAndSet(v, current, packed)) {
+                return true;
+            }
+            current = state.get(v);
+        }
+        return false;
+    }
+
+    private static int distance(AtomicLongArray state, int v) {
+        return (int) (state.get(v) >>> 32);
+    }
+
+    private static long pack(int distance, int predecessor) {
+        return ((long) distance << 32) | (predecessor & 0xFFFFFFFFL);
+    }
+
+    private static void checkWeight(int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("negative edge weight: " + weight);
+        }
+    }
+
+    private static int add(int distance, int weight) {
+        checkWeight(weight);
+        long sum = (long) distance + weight;
+        if (sum >= UNREACHABLE) {
+            throw new ArithmeticException("path length exceeds the int range");
+        }
+        return (int) sum;
+    }
+
+    // growable int array
+    private static final class IntBuffer {
+        int[] data = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * Tarjan's algorithm for strongly connected components on a {@link FrozenGraph}.
+ * The depth-first search keeps its own call stack in int arrays instead of recursing,
+ * so arbitrarily deep graphs cannot overflow the thread stack. O(V + E)
+ */
+public final class StronglyConnectedComponents {
+
+    private StronglyConnectedComponents() {
+    }
+
+    /**
+     * Components are numbered in the order Tarjan's algorithm completes them, which is a
+     * reverse topological order of the condensation: edges only lead to components with smaller or equal ids.
+     *
+     * @param graph the graph
+     * @return component id for every node id; ids are dense and start at 0
+     */
+    public static int[] compute(FrozenGraph<?> graph) {
+        int n = graph.nodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        // discovery index, 0 = unvisited
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        // Tarjan stack of nodes whose component is not known yet
+        int[] stack = new int[n];
+        int stackSize = 0;
+        // DFS call stack: node and position of the next edge to look at
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int depth = 0;
+        int nextIndex = 1;
+        int nextComponent = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            index[root] = low[root] = nextIndex++;
+            stack[stackSize++] = root;
+            callNode[0] = root;
+            callEdge[0] = offsets[root];
+            depth = 1;
+            while (depth > 0) {
+                int u = callNode[depth - 1];
+                int e = callEdge[depth - 1];
+                if (e < offsets[u + 1]) {
+                    callEdge[depth - 1] = e + 1;
+                    int v = targets[e];
+                    if (index[v] == 0) {
+                        // descending into v:
+                        index[v] = low[v] = nextIndex++;
+                        stack[stackSize++] = v;
+                        callNode[depth] = v;
+                        callEdge[depth] = offsets[v];
+                        depth++;
+                    } else if (component[v] == -1) {
+                        // v is on the stack
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+                // all edges of u are done:
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        component[w] = nextComponent;
+                    } while (w != u);
+                    nextComponent++;
+                }
+                depth--;
+                if (depth > 0) {
+                    int parent = callNode[depth - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * @param component result of {@link #compute(FrozenGraph)}
+     * @return number of components
+     */
+    public static int count(int[] component) {
+        int max = -1;
+        for (int c : component) {
+            max = Math.max(max, c);
+        }
+        return max + 1;
+    }
+}
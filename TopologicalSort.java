@@ -0,0 +1,41 @@
+/**
+ * Kahn's algorithm on a {@link FrozenGraph}: repeatedly takes a node without remaining incoming edges.
+ * Only int arrays are used, no recursion and no boxing. O(V + E)
+ */
+public final class TopologicalSort {
+
+    private TopologicalSort() {
+    }
+
+    /**
+     * @param graph the graph
+     * @return the node ids in an order where every edge leads from an earlier to a later node;
+     * null if the graph has a cycle.
+     */
+    public static int[] order(FrozenGraph<?> graph) {
+        int n = graph.nodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] inDegree = new int[n];
+        for (int e = 0; e < offsets[n]; e++) {
+            inDegree[targets[e]]++;
+        }
+        // the result array doubles as the queue
+        int[] order = new int[n];
+        int tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) {
+                order[tail++] = u;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    order[tail++] = targets[e];
+                }
+            }
+        }
+        return tail == n ? order : null;
+    }
+}
@@ -0,0 +1,285 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy breadth-first or depth-first traversal of a {@link Graph} from one start node.
+ * Nothing is visited before it is asked for: the successors of a node are only looked up
+ * when the element after it is requested, so stopping early (e.g. findFirst on the stream)
+ * touches only the part of the graph that was actually traversed.
+ * The graph must not be modified while a traversal is in progress.
+ *
+ * @param <T> the type stored in the nodes of the graph
+ */
+public final class Traversal<T> implements Iterable<Traversal.Visit<T>> {
+
+    public enum Order {
+        BREADTH_FIRST,
+        DEPTH_FIRST
+    }
+
+    /**
+     * A visited node together with the number of edges on the path it was discovered on.
+     */
+    public static final class Visit<T> {
+        private final T node;
+        private final int depth;
+
+        public Visit(T node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        public T getNode() {
+            return node;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            return node + "@" + depth;
+        }
+    }
+
+    // a parallel split expands at most this many nodes while looking for work to hand over
+    private static final int SPLIT_EXPANSION_LIMIT = 64;
+
+    private final Graph<T> graph;
+    private final T start;
+    private final Order order;
+
+    Traversal(Graph<T> graph, T start, Order order) {
+        this.graph = graph;
+        this.start = start;
+        this.order = order;
+    }
+
+    @Override
+    public Iterator<Visit<T>> iterator() {
+        return order == Order.BREADTH_FIRST ? new BreadthFirstIterator() : new DepthFirstIterator();
+    }
+
+    /**
+     * Breadth-first traversals split their frontier, so they can be processed by parallel streams.
+     * Depth-first traversals do not split.
+     */
+    @Override
+    public Spliterator<Visit<T>> spliterator() {
+        if (order == Order.BREADTH_FIRST) {
+            Set<T> visited = ConcurrentHashMap.newKeySet();
+            visited.add(start);
+            ArrayDeque<Visit<T>> frontier = new ArrayDeque<>();
+            frontier.add(new Visit<>(start, 0));
+            return new FrontierSpliterator(visited, frontier);
+        }
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return a sequential stream of the visits in traversal order
+     */
+    public Stream<Visit<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * In a parallel breadth-first stream every node is still visited once, but the frontier halves are
+     * expanded independently, so the order is not strict and a depth may exceed the shortest distance.
+     *
+     * @return a parallel stream of the visits
+     */
+    public Stream<Visit<T>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @return the nodes in traversal order
+     */
+    public Stream<T> nodes() {
+        return stream().map(Visit::getNode);
+    }
+
+    private Iterable<T> successors(T node) {
+        try {
+            return graph.successors(node);
+        } catch (Graph.InvalidNodeException e) {
+            throw new ConcurrentModificationException("node " + node + " was removed during the traversal");
+        }
+    }
+
+    private final class BreadthFirstIterator implements Iterator<Visit<T>> {
+        private final ArrayDeque<Visit<T>> queue = new ArrayDeque<>();
+        private final Set<T> visited = new HashSet<>();
+        // last returned visit, its successors are queued on the next call
+        private Visit<T> pending;
+
+        BreadthFirstIterator() {
+            queue.add(new Visit<>(start, 0));
+            visited.add(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            expandPending();
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public Visit<T> next() {
+            expandPending();
+            Visit<T> visit = queue.poll();
+            if (visit == null) {
+                throw new NoSuchElementException();
+            }
+            pending = visit;
+            return visit;
+        }
+
+        private void expandPending() {
+            if (pending == null) {
+                return;
+            }
+            for (T successor : successors(pending.node)) {
+                if (visited.add(successor)) {
+                    queue.add(new Visit<>(successor, pending.depth + 1));
+                }
+            }
+            pending = null;
+        }
+    }
+
+    private final class DepthFirstIterator implements Iterator<Visit<T>> {
+        private final ArrayDeque<Iterator<T>> stack = new ArrayDeque<>();
+        private final ArrayDeque<Integer> depths = new ArrayDeque<>();
+        private final Set<T> visited = new HashSet<>();
+        private Visit<T> next;
+        // last returned visit, its successors are pushed on the next call
+        private Visit<T> pending;
+
+        DepthFirstIterator() {
+            next = new Visit<>(start, 0);
+            visited.add(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            advance();
+            return next != null;
+        }
+
+        @Override
+        public Visit<T> next() {
+            advance();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            pending = next;
+            next = null;
+            return pending;
+        }
+
+        private void advance() {
+            if (next != null) {
+                return;
+            }
+            if (pending != null) {
+                stack.push(successors(pending.node).iterator());
+                depths.push(pending.depth + 1);
+                pending = null;
+            }
+            while (!stack.isEmpty()) {
+                Iterator<T> successors = stack.peek();
+                if (!successors.hasNext()) {
+                    stack.pop();
+                    depths.pop();
+                    continue;
+                }
+                T successor = successors.next();
+                if (visited.add(successor)) {
+                    next = new Visit<>(successor, depths.peek());
+                    return;
+                }
+            }
+        }
+    }
+
+    // breadth-first spliterator whose frontier can be split between threads sharing one visited set
+    private final class FrontierSpliterator implements Spliterator<Visit<T>> {
+        private final Set<T> visited;
+        // discovered, not yet expanded
+        private final ArrayDeque<Visit<T>> frontier;
+        // expanded while splitting, not yet delivered
+        private final ArrayDeque<Visit<T>> ready = new ArrayDeque<>();
+
+        FrontierSpliterator(Set<T> visited, ArrayDeque<Visit<T>> frontier) {
+            this.visited = visited;
+            this.frontier = frontier;
+        }
+
+        private void expand(Visit<T> visit) {
+            for (T successor : successors(visit.node)) {
+                if (visited.add(successor)) {
+                    frontier.add(new Visit<>(successor, visit.depth + 1));
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Visit<T>> action) {
+            Visit<T> visit = ready.poll();
+            if (visit == null) {
+                visit = frontier.poll();
+                if (visit == null) {
+                    return false;
+                }
+                expand(visit);
+            }
+            action.accept(visit);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Visit<T>> trySplit() {
+            for (int expanded = 0; frontier.size() < 2 && !frontier.isEmpty()
+                    && expanded < SPLIT_EXPANSION_LIMIT; expanded++) {
+                Visit<T> visit = frontier.poll();
+                expand(visit);
+                ready.add(visit);
+            }
+            if (frontier.size() < 2) {
+                return null;
+            }
+            List<Visit<T>> half = new ArrayList<>();
+            for (int i = frontier.size() / 2; i > 0; i--) {
+                half.add(frontier.pollLast());
+            }
+            return new FrontierSpliterator(visited, new ArrayDeque<>(half));
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+}
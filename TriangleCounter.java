@@ -0,0 +1,204 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts triangles and local clustering coefficients of a {@link FrozenGraph}, treating all edges as undirected
+ * and ignoring self-loops and duplicate edges.
+ * Dense graphs are intersected on bit rows like in {@link BitMatrixGraph} (AND + popcount, 64 nodes per word);
+ * sparse graphs orient every edge towards the endpoint of higher degree and merge the sorted forward rows.
+ * The work is split into node ranges on a ForkJoinPool.
+ */
+public final class TriangleCounter {
+
+    public enum Mode {
+        // BITSET if the average degree is at least n / 64 and the bit rows fit into BITSET_MAX_BYTES
+        AUTO,
+        BITSET,
+        SORTED_MERGE
+    }
+
+    static final long BITSET_MAX_BYTES = 256L << 20;
+    // nodes per ForkJoin leaf task
+    private static final int GRAIN = 256;
+
+    private final Mode mode;
+    private final ForkJoinPool pool;
+
+    public TriangleCounter() {
+        this(Mode.AUTO, ForkJoinPool.commonPool());
+    }
+
+    public TriangleCounter(Mode mode, ForkJoinPool pool) {
+        this.mode = mode;
+        this.pool = pool;
+    }
+
+    /**
+     * @return number of triangles in the graph
+     */
+    public long countTriangles(FrozenGraph<?> graph) {
+        long sum = 0;
+        for (long t : localTriangles(graph)) {
+            sum += t;
+        }
+        return sum / 3;
+    }
+
+    /**
+     * @return number of triangles every node id is part of
+     */
+    public long[] localTriangles(FrozenGraph<?> graph) {
+        return localTrianglesOfSimple(simple(graph));
+    }
+
+    /**
+     * @return for every node id the fraction of pairs of its neighbors that are connected; 0 for degree below 2
+     */
+    public double[] clusteringCoefficients(FrozenGraph<?> graph) {
+        FrozenGraph<?> simple = simple(graph);
+        long[] triangles = localTrianglesOfSimple(simple);
+        double[] coefficients = new double[triangles.length];
+        for (int u = 0; u < triangles.length; u++) {
+            long degree = simple.degree(u);
+            if (degree >= 2) {
+                coefficients[u] = 2.0 * triangles[u] / (degree * (degree - 1));
+            }
+        }
+        return coefficients;
+    }
+
+    private long[] localTrianglesOfSimple(FrozenGraph<?> simple) {
+        int n = simple.nodeCount();
+        boolean bitset = switch (mode) {
+            case BITSET -> true;
+            case SORTED_MERGE -> false;
+            case AUTO -> (long) n * BitMatrixGraph.words(n) * 8 <= BITSET_MAX_BYTES
+                    && (long) simple.edgeCount() * 64 >= (long) n * n;
+        };
+        return bitset ? bitsetCount(simple) : mergeCount(simple);
+    }
+
+    // symmetric rows, sorted, without duplicates and self-loops
+    private static <T> FrozenGraph<T> simple(FrozenGraph<T> graph) {
+        FrozenGraph<T> undirected = graph.undirected();
+        int n = undirected.nodeCount();
+        int[] offsets = new int[n + 1];
+        int[] targets = undirected.targets;
+        int write = 0;
+        for (int u = 0; u < n; u++) {
+            int start = undirected.offsets[u];
+            int end = undirected.offsets[u + 1];
+            offsets[u] = write;
+            for (int e = start; e < end; e++) {
+                if (targets[e] != u) {
+                    targets[write++] = targets[e];
+                }
+            }
+        }
+        offsets[n] = write;
+        return new FrozenGraph<>(undirected.nodes, undirected.ids, offsets, targets);
+    }
+
+    private long[] bitsetCount(FrozenGraph<?> simple) {
+        int n = simple.nodeCount();
+        int words = BitMatrixGraph.words(n);
+        long[][] rows = new long[n][words];
+        pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                for (int e = simple.offsets[u]; e < simple.offsets[u + 1]; e++) {
+                    int v = simple.targets[e];
+                    rows[u][v >>> 6] |= 1L << v;
+                }
+            }
+        }));
+        // t(u) = 1/2 * sum over neighbors v of |N(u) & N(v)|, every node on its own
+        long[] triangles = new long[n];
+        pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                long[] rowU = rows[u];
+                long sum = 0;
+                for (int e = simple.offsets[u]; e < simple.offsets[u + 1]; e++) {
+                    long[] rowV = rows[simple.targets[e]];
+                    for (int w = 0; w < words; w++) {
+                        sum += Long.bitCount(rowU[w] & rowV[w]);
+                    }
+                }
+                triangles[u] = sum / 2;
+            }
+        }));
+        return triangles;
+    }
+
+    private long[] mergeCount(FrozenGraph<?> simple) {
+        int n = simple.nodeCount();
+        int[] offsets = simple.offsets;
+        int[] targets = simple.targets;
+        // forward rows: only neighbors of higher (degree, id) rank, still sorted by id
+        int[] forwardOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int count = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (before(simple, u, targets[e])) {
+                    count++;
+                }
+            }
+            forwardOffsets[u + 1] = forwardOffsets[u] + count;
+        }
+        int[] forward = new int[forwardOffsets[n]];
+        pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                int position = forwardOffsets[u];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (before(simple, u, targets[e])) {
+                        forward[position++] = targets[e];
+                    }
+                }
+            }
+        }));
+        // every triangle is found exactly once, from its endpoint of lowest rank
+        AtomicLongArray triangles = new AtomicLongArray(n);
+        pool.invoke(new RangeTask(0, n, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                long own = 0;
+                for (int e = forwardOffsets[u]; e < forwardOffsets[u + 1]; e++) {
+                    int v = forward[e];
+                    int i = forwardOffsets[u];
+                    int j = forwardOffsets[v];
+                    int endU = forwardOffsets[u + 1];
+                    int endV = forwardOffsets[v + 1];
+                    long found = 0;
+                    while (i < endU && j < endV) {
+                        if (forward[i] < forward[j]) {
+                            i++;
+                        } else if (forward[i] > forward[j]) {
+                            j++;
+                        } else {
+                            triangles.getAndIncrement(forward[i]);
+                            found++;
+                            i++;
+                            j++;
+                        }
+                    }
+                    if (found > 0) {
+                        own += found;
+                        triangles.getAndAdd(v, found);
+                    }
+                }
+                if (own > 0) {
+                    triangles.getAndAdd(u, own);
+                }
+            }
+        }));
+        long[] result = new long[n];
+        for (int u = 0; u < n; u++) {
+            result[u] = triangles.get(u);
+        }
+        return result;
+    }
+
+    private static boolean before(FrozenGraph<?> graph, int u, int v) {
+        int degreeU = graph.degree(u);
+        int degreeV = graph.degree(v);
+        return degreeU < degreeV || (degreeU == degreeV && u < v);
+    }
+}